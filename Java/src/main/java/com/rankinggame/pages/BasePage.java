@@ -1,29 +1,108 @@
 package com.rankinggame.pages;
 
+import com.rankinggame.utils.EmulationTimings;
+import com.rankinggame.utils.PageClock;
+import com.rankinggame.utils.RunConfig;
+import com.rankinggame.utils.VisualCheckResult;
+import com.rankinggame.utils.VisualComparator;
 import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.bidi.BrowsingContextInspector;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.browsingcontext.NavigationInfo;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class BasePage {
+    // Page function: the innermost visible element whose text is an item, per item and in
+    // document order; a leading position number ("1. ", "2) ") is ignored
+    protected static final String FIND_SHOWN_ITEMS_FUNCTION =
+            "function(items) {" +
+            "  var strip = function(e) { return (e.innerText || '').trim().replace(/^\\d+[.)]?\\s+/, ''); };" +
+            "  var names = [], elements = [], all = document.body.querySelectorAll('*');" +
+            "  for (var i = 0; i < all.length; i++) {" +
+            "    var e = all[i], text = strip(e);" +
+            "    if (items.indexOf(text) < 0 || names.indexOf(text) >= 0 || e.getClientRects().length === 0) continue;" +
+            "    if (Array.prototype.some.call(e.children, function(c) { return strip(c) === text; })) continue;" +
+            "    names.push(text);" +
+            "    elements.push(e);" +
+            "  }" +
+            "  return {names: names, elements: elements};" +
+            "}";
+
+    // Hooks the History API so client-side route changes can be awaited without polling;
+    // returns the URL the action starts from
+    private static final String INSTALL_HISTORY_HOOK_SCRIPT =
+            "if (!window.__rgNav) {" +
+            "  var nav = window.__rgNav = { listeners: [] };" +
+            "  var notify = function() { nav.listeners.splice(0).forEach(function(l) { l(location.href); }); };" +
+            "  ['pushState', 'replaceState'].forEach(function(name) {" +
+            "    var original = history[name];" +
+            "    history[name] = function() { var result = original.apply(this, arguments); notify(); return result; };" +
+            "  });" +
+            "  window.addEventListener('popstate', notify);" +
+            "  window.addEventListener('hashchange', notify);" +
+            "}" +
+            "return location.href;";
+
+    private static final String AWAIT_ROUTE_SCRIPT =
+            "var path = arguments[0], done = arguments[arguments.length - 1];" +
+            "var matches = function(href) {" +
+            "  var p = new URL(href).pathname;" +
+            "  return p === path || p.indexOf(path.replace(/\\/$/, '') + '/') === 0 && path !== '/';" +
+            "};" +
+            "if (matches(location.href)) { done(location.href); return; }" +
+            "if (!window.__rgNav) { done(null); return; }" +
+            "window.__rgNav.listeners.push(function check(href) {" +
+            "  if (matches(href)) { done(href); } else { window.__rgNav.listeners.push(check); }" +
+            "});";
+
+    // Mask rectangles in screenshot pixels, relative to the captured element (or the viewport)
+    private static final String MASK_RECTS_SCRIPT =
+            "var dpr = window.devicePixelRatio || 1;" +
+            "var origin = arguments[0] ? arguments[0].getBoundingClientRect() : { left: 0, top: 0 };" +
+            "return Array.prototype.slice.call(arguments, 1).map(function(e) {" +
+            "  var r = e.getBoundingClientRect();" +
+            "  return [Math.floor((r.left - origin.left) * dpr), Math.floor((r.top - origin.top) * dpr)," +
+            "          Math.ceil(r.width * dpr) + 1, Math.ceil(r.height * dpr) + 1];" +
+            "});";
+
     protected WebDriver driver;
     protected WebDriverWait wait;
     
     /**
-     * Constructor for BasePage
+     * Constructor for BasePage. Element fields are assigned by the bindings
+     * generated at compile time by PageBindingProcessor, without reflection.
      * @param driver WebDriver instance
      */
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        PageFactory.initElements(driver, this);
+        RunConfig config = RunConfig.current();
+        this.wait = new WebDriverWait(driver, config.getWaitTimeout(), config.getWaitPolling());
+        GeneratedPageBindings.bind(this, driver);
     }
 
     /**
@@ -87,6 +166,16 @@ public class BasePage {
         waitForElementClickable(element).click();
     }
     
+    /**
+     * Starts a batch of native clicks, key presses and pointer moves that is
+     * sent as one W3C Actions command, e.g.
+     * inputBatch().replace(field, "Apples").click(submit).performAndWait(condition)
+     * @return Empty batch for this page's driver
+     */
+    protected InputBatch inputBatch() {
+        return new InputBatch(driver, wait);
+    }
+
     /**
      * Click element using JavaScript (helps with element interception)
      * @param locator By locator
@@ -108,6 +197,234 @@ public class BasePage {
         sleep(500);
     }
 
+    /**
+     * Click element using JavaScript and return as soon as the given route is reached,
+     * without the settle delay used by clickJS
+     * @param locator By locator
+     * @param path Route path to wait for, e.g. "/matchup" (sub-paths also match; "/" matches only the root)
+     * @return Where the navigation ended and how long it took
+     */
+    protected NavigationTiming clickJSAndWaitForRoute(By locator, String path) {
+        WebElement element = driver.findElement(locator);
+        return performAndWaitForRoute(() -> ((JavascriptExecutor) driver).executeScript(
+                "arguments[0].scrollIntoView(true); arguments[0].click();", element), path);
+    }
+
+    /**
+     * Click element and return as soon as the given route is reached
+     * @param locator By locator
+     * @param path Route path to wait for
+     * @return Where the navigation ended and how long it took
+     */
+    protected NavigationTiming clickAndWaitForRoute(By locator, String path) {
+        return performAndWaitForRoute(() -> click(locator), path, null);
+    }
+
+    /**
+     * Click element, wait until the given route is reached and the target page is shown
+     * @param locator By locator
+     * @param path Route path to wait for
+     * @param pageShown Condition that holds once the target page is rendered
+     * @return Where the navigation ended and how long it took
+     */
+    protected NavigationTiming clickAndWaitForRoute(By locator, String path, ExpectedCondition<?> pageShown) {
+        return performAndWaitForRoute(() -> click(locator), path, pageShown);
+    }
+
+    /**
+     * Run an action and wait until the browser reaches the given route.
+     * Full page loads are reported by BiDi browsingContext load events when the session
+     * has BiDi enabled; client-side route changes (History API) are reported by a page hook.
+     * @param action Action expected to trigger the navigation
+     * @param path Route path to wait for
+     * @return Where the navigation ended and how long it took
+     */
+    protected NavigationTiming performAndWaitForRoute(Runnable action, String path) {
+        return performAndWaitForRoute(action, path, null);
+    }
+
+    /**
+     * Run an action, wait until the browser reaches the given route and then until the
+     * target page is shown. When the action starts on a URL that already matches the
+     * route, the URL cannot show the navigation and only the page condition is awaited.
+     * @param action Action expected to trigger the navigation
+     * @param path Route path to wait for
+     * @param pageShown Condition that holds once the target page is rendered; required
+     *                  when the action may start on the target route already
+     * @return Where the navigation ended and how long it took
+     */
+    protected NavigationTiming performAndWaitForRoute(Runnable action, String path, ExpectedCondition<?> pageShown) {
+        JavascriptExecutor jsExecutor = (JavascriptExecutor) driver;
+        Object startUrl = jsExecutor.executeScript(INSTALL_HISTORY_HOOK_SCRIPT);
+        if (startUrl != null && routeMatches(startUrl.toString(), path)) {
+            if (pageShown == null) {
+                throw new IllegalStateException("Already on route " + path
+                        + ", only a page condition can show that the navigation happened");
+            }
+            long start = System.nanoTime();
+            action.run();
+            wait.until(pageShown);
+            return recordRoute(path, new NavigationTiming(driver.getCurrentUrl(),
+                    Duration.ofNanos(System.nanoTime() - start), "page"));
+        }
+
+        CompletableFuture<String> loaded = new CompletableFuture<>();
+        BrowsingContextInspector inspector = openNavigationInspector(loaded, path);
+        try {
+            long start = System.nanoTime();
+            action.run();
+
+            Object href = null;
+            try {
+                href = jsExecutor.executeAsyncScript(AWAIT_ROUTE_SCRIPT, path);
+            } catch (WebDriverException e) {
+                if (!isDocumentUnloaded(e)) {
+                    throw e;
+                }
+                // The document was replaced by a full page load while waiting; BiDi reports it
+            }
+            NavigationTiming timing;
+            if (href != null) {
+                timing = new NavigationTiming(href.toString(), Duration.ofNanos(System.nanoTime() - start), "history");
+            } else if (inspector != null) {
+                String url = awaitLoad(loaded);
+                timing = new NavigationTiming(url, Duration.ofNanos(System.nanoTime() - start), "bidi");
+            } else {
+                wait.until(d -> routeMatches(d.getCurrentUrl(), path));
+                timing = new NavigationTiming(driver.getCurrentUrl(), Duration.ofNanos(System.nanoTime() - start), "url");
+            }
+            if (pageShown != null) {
+                wait.until(pageShown);
+                timing = new NavigationTiming(timing.getUrl(), Duration.ofNanos(System.nanoTime() - start),
+                        timing.getSource());
+            }
+            return recordRoute(path, timing);
+        } finally {
+            if (inspector != null) {
+                inspector.close();
+            }
+        }
+    }
+
+    private static NavigationTiming recordRoute(String path, NavigationTiming timing) {
+        EmulationTimings.record("route " + path, timing.getDuration().toNanos() / 1_000_000.0);
+        return timing;
+    }
+
+    /**
+     * Tells the errors of a script whose document went away (a full page load replaced
+     * it) apart from script failures and script timeouts, which must not be swallowed
+     */
+    private static boolean isDocumentUnloaded(WebDriverException e) {
+        if (e instanceof ScriptTimeoutException) {
+            return false;
+        }
+        String message = String.valueOf(e.getRawMessage()).toLowerCase(Locale.ROOT);
+        // chromedriver/msedgedriver, then geckodriver
+        return message.contains("document unloaded")
+                || message.contains("execution context was destroyed")
+                || message.contains("cannot find context with specified id")
+                || message.contains("inspected target navigated or closed")
+                || message.contains("document was unloaded");
+    }
+
+    private BrowsingContextInspector openNavigationInspector(CompletableFuture<String> loaded, String path) {
+        if (!(driver instanceof HasBiDi) || ((HasBiDi) driver).maybeGetBiDi().isEmpty()) {
+            return null;
+        }
+        BrowsingContextInspector inspector = new BrowsingContextInspector(driver);
+        Consumer<NavigationInfo> listener = info -> {
+            if (routeMatches(info.getUrl(), path)) {
+                loaded.complete(info.getUrl());
+            }
+        };
+        inspector.onBrowsingContextLoaded(listener);
+        inspector.onFragmentNavigated(listener);
+        return inspector;
+    }
+
+    private String awaitLoad(CompletableFuture<String> loaded) {
+        try {
+            return loaded.get(driver.manage().timeouts().getPageLoadTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for navigation", e);
+        } catch (ExecutionException | java.util.concurrent.TimeoutException e) {
+            throw new TimeoutException("Navigation did not reach the expected route", e);
+        }
+    }
+
+    /**
+     * Check whether the browser is currently on the given route
+     * @param path Route path, e.g. "/matchup"
+     * @return true if the current URL matches the route
+     */
+    protected boolean isOnRoute(String path) {
+        return routeMatches(driver.getCurrentUrl(), path);
+    }
+
+    private static boolean routeMatches(String url, String path) {
+        String current = URI.create(url).getPath();
+        if (current == null || current.isEmpty()) {
+            current = "/";
+        }
+        if (current.equals(path)) {
+            return true;
+        }
+        return !path.equals("/") && current.startsWith(path.replaceAll("/$", "") + "/");
+    }
+
+    /**
+     * Compare the current viewport against a stored baseline image.
+     * Without a baseline the capture is recorded under target/ and the
+     * result reports the baseline as missing.
+     * @param name Baseline name
+     * @param masks Locators of dynamic regions to ignore (animations, rotating text)
+     * @return Comparison result
+     */
+    protected VisualCheckResult checkVisual(String name, By... masks) {
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        return VisualComparator.compare(name, viewport(), png, maskRects(null, masks));
+    }
+
+    /**
+     * Compare a single element against a stored baseline image
+     * @param name Baseline name
+     * @param element Element to capture
+     * @param masks Locators of dynamic regions inside the element to ignore
+     * @return Comparison result
+     */
+    protected VisualCheckResult checkVisual(String name, WebElement element, By... masks) {
+        byte[] png = waitForElementVisible(element).getScreenshotAs(OutputType.BYTES);
+        return VisualComparator.compare(name, viewport(), png, maskRects(element, masks));
+    }
+
+    private Dimension viewport() {
+        List<?> size = (List<?>) ((JavascriptExecutor) driver).executeScript(
+                "return [window.innerWidth, window.innerHeight];");
+        return new Dimension(((Number) size.get(0)).intValue(), ((Number) size.get(1)).intValue());
+    }
+
+    private List<Rectangle> maskRects(WebElement origin, By... masks) {
+        List<Object> arguments = new ArrayList<>();
+        arguments.add(origin);
+        for (By mask : masks) {
+            arguments.addAll(driver.findElements(mask));
+        }
+        List<Rectangle> rects = new ArrayList<>();
+        if (arguments.size() == 1) {
+            return rects;
+        }
+        List<?> result = (List<?>) ((JavascriptExecutor) driver).executeScript(MASK_RECTS_SCRIPT, arguments.toArray());
+        for (Object item : result) {
+            List<?> rect = (List<?>) item;
+            // Selenium's Rectangle takes (x, y, height, width)
+            rects.add(new Rectangle(((Number) rect.get(0)).intValue(), ((Number) rect.get(1)).intValue(),
+                    ((Number) rect.get(3)).intValue(), ((Number) rect.get(2)).intValue()));
+        }
+        return rects;
+    }
+
     /**
      * Enter text into element after clearing it
      * @param locator By locator
@@ -251,6 +568,52 @@ public class BasePage {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Finds the shown elements that carry the given items' texts, in one
+     * script call. Screens that list the entered items (matchups, ranking)
+     * are read by content, so they need no class-name locators.
+     * @param items Item texts, e.g. those entered on the input page
+     * @return Elements by item text, in document order
+     */
+    protected Map<String, WebElement> findShownItems(List<String> items) {
+        Map<?, ?> found = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(
+                "return (" + FIND_SHOWN_ITEMS_FUNCTION + ")(arguments[0]);", items);
+        List<?> names = (List<?>) found.get("names");
+        List<?> elements = (List<?>) found.get("elements");
+        Map<String, WebElement> shown = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            shown.put(String.valueOf(names.get(i)), (WebElement) elements.get(i));
+        }
+        return shown;
+    }
+
+    /**
+     * Freezes the page's timers, animation frames and Date on a virtual clock
+     * that only moves via advanceClock(), so timer-driven UI can be
+     * fast-forwarded instead of waited for
+     * @return true if pages loaded later also start on the virtual clock
+     *         (Chromium), false if only the current document does
+     */
+    public boolean installClock() {
+        return PageClock.install(driver);
+    }
+
+    /**
+     * Fast-forwards the page's virtual clock, firing due timers in order
+     * @param duration Virtual time to advance, e.g. Duration.ofSeconds(2)
+     * @return Number of timer and animation frame callbacks fired
+     */
+    public int advanceClock(Duration duration) {
+        return PageClock.advance(driver, duration);
+    }
+
+    /**
+     * Returns the page to real time
+     */
+    public void uninstallClock() {
+        PageClock.uninstall(driver);
+    }
+
     /**
      * Sleep for specified milliseconds
      * @param millis Time in milliseconds
@@ -0,0 +1,205 @@
+package com.rankinggame.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsElement;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Element field bound by generated page bindings. The element is located on
+ * first use and reused until it goes stale, instead of being re-located on
+ * every access like a PageFactory proxy.
+ */
+public class BoundElement implements WebElement, WrapsElement {
+    private final SearchContext context;
+    private final By locator;
+    private WebElement element;
+
+    /**
+     * Constructor for BoundElement
+     * @param driver WebDriver instance used to locate the element
+     * @param locator By locator
+     */
+    public BoundElement(WebDriver driver, By locator) {
+        this.context = driver;
+        this.locator = locator;
+    }
+
+    public By getLocator() {
+        return locator;
+    }
+
+    /**
+     * Gets the element for code that uses it directly (script arguments,
+     * Actions origins), where a stale element cannot be retried afterwards.
+     * A cached element is checked first and located again if it went stale,
+     * like a PageFactory proxy would be.
+     * @return Live element
+     */
+    @Override
+    public WebElement getWrappedElement() {
+        if (element != null) {
+            try {
+                element.getTagName();
+                return element;
+            } catch (StaleElementReferenceException | NoSuchSessionException e) {
+                element = null;
+            }
+        }
+        return located();
+    }
+
+    private WebElement located() {
+        if (element == null) {
+            element = context.findElement(locator);
+        }
+        return element;
+    }
+
+    /**
+     * Runs an element call, re-locating once if the cached element went stale
+     * (page re-render, refresh or a recycled session)
+     */
+    private <T> T call(Function<WebElement, T> action) {
+        try {
+            return action.apply(located());
+        } catch (StaleElementReferenceException | NoSuchSessionException e) {
+            element = null;
+            return action.apply(located());
+        }
+    }
+
+    private void run(Consumer<WebElement> action) {
+        call(e -> {
+            action.accept(e);
+            return null;
+        });
+    }
+
+    @Override
+    public void click() {
+        run(WebElement::click);
+    }
+
+    @Override
+    public void submit() {
+        run(WebElement::submit);
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        run(e -> e.sendKeys(keysToSend));
+    }
+
+    @Override
+    public void clear() {
+        run(WebElement::clear);
+    }
+
+    @Override
+    public String getTagName() {
+        return call(WebElement::getTagName);
+    }
+
+    @Override
+    public String getDomProperty(String name) {
+        return call(e -> e.getDomProperty(name));
+    }
+
+    @Override
+    public String getDomAttribute(String name) {
+        return call(e -> e.getDomAttribute(name));
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return call(e -> e.getAttribute(name));
+    }
+
+    @Override
+    public String getAriaRole() {
+        return call(WebElement::getAriaRole);
+    }
+
+    @Override
+    public String getAccessibleName() {
+        return call(WebElement::getAccessibleName);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return call(WebElement::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return call(WebElement::isEnabled);
+    }
+
+    @Override
+    public String getText() {
+        return call(WebElement::getText);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return call(e -> e.findElements(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return call(e -> e.findElement(by));
+    }
+
+    @Override
+    public SearchContext getShadowRoot() {
+        return call(WebElement::getShadowRoot);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return call(WebElement::isDisplayed);
+    }
+
+    @Override
+    public Point getLocation() {
+        return call(WebElement::getLocation);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return call(WebElement::getSize);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return call(WebElement::getRect);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return call(e -> e.getCssValue(propertyName));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) throws WebDriverException {
+        return call(e -> e.getScreenshotAs(target));
+    }
+
+    @Override
+    public String toString() {
+        return "BoundElement(" + locator + ")";
+    }
+}
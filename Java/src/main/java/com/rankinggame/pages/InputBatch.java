@@ -0,0 +1,153 @@
+package com.rankinggame.pages;
+
+import com.rankinggame.utils.CdpSupport;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+
+/**
+ * Sequence of clicks, key presses and pointer moves sent to the browser as
+ * one W3C performActions command. The browser dispatches trusted input
+ * events exactly as for a user, unlike setting values through script, but
+ * a whole form costs one round trip instead of a wait, clear and sendKeys
+ * per field. Nothing is checked between steps; the caller passes a single
+ * condition to wait for once the batch has run.
+ */
+public class InputBatch {
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+    private final Actions actions;
+    private final boolean scrollIntoView;
+    private final Keys selectAllModifier;
+    private int steps = 0;
+
+    /**
+     * Constructor for InputBatch
+     * @param driver WebDriver instance
+     * @param wait Wait used for the final verification
+     */
+    InputBatch(WebDriver driver, WebDriverWait wait) {
+        this.driver = driver;
+        this.wait = wait;
+        this.actions = new Actions(driver);
+        WebDriver session = CdpSupport.unwrap(driver);
+        Capabilities capabilities = session instanceof HasCapabilities
+                ? ((HasCapabilities) session).getCapabilities() : null;
+        // safaridriver has no wheel input source to scroll targets into view with
+        this.scrollIntoView = capabilities == null || !"safari".equalsIgnoreCase(capabilities.getBrowserName());
+        Platform platform = capabilities == null ? null : capabilities.getPlatformName();
+        this.selectAllModifier = platform != null && platform.is(Platform.MAC) ? Keys.COMMAND : Keys.CONTROL;
+    }
+
+    /**
+     * Moves the pointer to the centre of an element
+     * @param element Target element
+     * @return This batch
+     */
+    public InputBatch moveTo(WebElement element) {
+        scrollTo(element);
+        actions.moveToElement(element);
+        steps++;
+        return this;
+    }
+
+    /**
+     * Clicks the centre of an element
+     * @param element Target element
+     * @return This batch
+     */
+    public InputBatch click(WebElement element) {
+        scrollTo(element);
+        actions.click(element);
+        steps++;
+        return this;
+    }
+
+    /**
+     * Clicks into a field and types after its current content
+     * @param element Input field
+     * @param text Text to type
+     * @return This batch
+     */
+    public InputBatch type(WebElement element, CharSequence text) {
+        click(element);
+        actions.sendKeys(text);
+        return this;
+    }
+
+    /**
+     * Clicks into a field, selects and deletes its content, then types
+     * @param element Input field
+     * @param text Text to type; empty leaves the field cleared
+     * @return This batch
+     */
+    public InputBatch replace(WebElement element, CharSequence text) {
+        click(element);
+        actions.keyDown(selectAllModifier).sendKeys("a").keyUp(selectAllModifier).sendKeys(Keys.BACK_SPACE);
+        if (text.length() > 0) {
+            actions.sendKeys(text);
+        }
+        return this;
+    }
+
+    /**
+     * Presses and releases keys in the focused element, e.g. Keys.ENTER
+     * @param keys Keys to press
+     * @return This batch
+     */
+    public InputBatch press(CharSequence... keys) {
+        actions.sendKeys(keys);
+        steps++;
+        return this;
+    }
+
+    /**
+     * Waits between two steps inside the browser, without a round trip
+     * @param duration Pause length
+     * @return This batch
+     */
+    public InputBatch pause(Duration duration) {
+        actions.pause(duration);
+        steps++;
+        return this;
+    }
+
+    /**
+     * Sends the batch as one command
+     */
+    public void perform() {
+        if (steps > 0) {
+            actions.perform();
+        }
+    }
+
+    /**
+     * Sends the batch as one command, then waits once for its outcome
+     * @param condition Condition that holds when the batch has taken effect
+     * @param <T> Condition result type
+     * @return Result of the condition
+     */
+    public <T> T performAndWait(ExpectedCondition<T> condition) {
+        perform();
+        return wait.until(condition);
+    }
+
+    private void scrollTo(WebElement element) {
+        if (scrollIntoView) {
+            actions.scrollToElement(element);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InputBatch(" + steps + " steps on " + driver + ")";
+    }
+}
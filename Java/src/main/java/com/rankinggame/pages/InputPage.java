@@ -1,25 +1,49 @@
 package com.rankinggame.pages;
 
+import com.rankinggame.utils.VisualCheckResult;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import java.util.List;
 
 public class InputPage extends BasePage {
 
-    // Locators based on the actual HTML structure
-    private final By headingInput = By.id("headingInput");
-    private final By inputTopicDescription = By.id("inputTopicDescription");
-    private final By inputPageTopic = By.id("inputPageTopic");
-    private final By inputPrompt = By.id("inputPrompt");
-    private final By inputRows = By.cssSelector(".inputRow");
+    // @FindBy fields are package-private so the generated InputPageBindings can assign them;
+    // where a By is needed, the generated constants are used instead of a second declaration
+
+    // Heading and topic
+    @FindBy(id = "headingInput")
+    WebElement headingInput;
+
+    @FindBy(id = "inputTopicDescription")
+    WebElement inputTopicDescription;
+
+    @FindBy(id = "inputPageTopic")
+    WebElement inputPageTopic;
+
+    @FindBy(id = "inputPrompt")
+    WebElement inputPrompt;
+
+    // Buttons
+    @FindBy(css = ".addItem.rowButtons.round-button.add")
+    WebElement addButton;
+
+    @FindBy(id = "RankBtn")
+    WebElement rankButton;
+
+    @FindBy(css = ".resetBtn")
+    WebElement resetButton;
+
+    @FindBy(css = ".volume-control")
+    WebElement volumeControl;
+
+    // Rows grow and shrink, so these are located on every use
     private final By inputFields = By.cssSelector(".input-field-cell input");
     private final By removeButtons = By.cssSelector(".button.round-button.clear");
-    private final By addButton = By.cssSelector(".addItem.rowButtons.round-button.add");
-    private final By rankButton = By.id("RankBtn");
-    private final By resetButton = By.cssSelector(".resetBtn");
-    private final By volumeControl = By.cssSelector(".volume-control");
     private final By indexColumns = By.cssSelector(".index-column");
 
     /**
@@ -127,6 +151,27 @@ public class InputPage extends BasePage {
         sleep(500); // Wait for UI to update
     }
 
+    /**
+     * Adds rows until there is one per item, then types all items in one
+     * batch of native key input
+     * @param items Items to enter (3 to 12)
+     */
+    public void enterItems(List<String> items) {
+        int count = getInputFieldCount();
+        while (count < items.size()) {
+            // Plain script click without clickJS's settle delay; the row count is awaited instead
+            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", addButton);
+            waitForInputFieldCount(++count);
+        }
+        List<WebElement> fields = findElements(inputFields);
+        InputBatch batch = inputBatch();
+        for (int i = 0; i < items.size(); i++) {
+            batch.replace(fields.get(i), items.get(i));
+        }
+        WebElement last = fields.get(items.size() - 1);
+        batch.performAndWait(ExpectedConditions.attributeToBe(last, "value", items.get(items.size() - 1)));
+    }
+
     /**
      * Clicks the Rank button to proceed
      */
@@ -141,6 +186,14 @@ public class InputPage extends BasePage {
         clickJS(rankButton);
     }
 
+    /**
+     * Clicks the Rank button using JavaScript and waits until the matchup route is reached
+     * @return Navigation URL and duration
+     */
+    public NavigationTiming clickRankButtonAndWaitForMatchup() {
+        return clickJSAndWaitForRoute(InputPageBindings.RANK_BUTTON, "/matchup");
+    }
+
     /**
      * Clicks the Reset button
      */
@@ -148,6 +201,14 @@ public class InputPage extends BasePage {
         click(resetButton);
     }
 
+    /**
+     * Clicks the Reset button and waits until the splash page is shown
+     * @return Navigation URL and duration
+     */
+    public NavigationTiming clickResetButtonAndWaitForSplash() {
+        return clickAndWaitForRoute(InputPageBindings.RESET_BUTTON, "/", SplashPage.shown());
+    }
+
     /**
      * Toggles the volume (clicks the volume control)
      */
@@ -215,18 +276,27 @@ public class InputPage extends BasePage {
         }
     }
     
+    /**
+     * Compares the input page against its baseline, ignoring the input
+     * fields, whose placeholders show example items
+     * @return Comparison result
+     */
+    public VisualCheckResult checkInputVisuals() {
+        return checkVisual("input", InputPageBindings.INPUT_FIELDS);
+    }
+
     /**
      * Waits for the page to be fully loaded
      */
     public void waitForPageToLoad() {
-        waitForElementVisible(headingInput);
-        waitForElementVisible(inputPrompt);
+        waitForElementVisible(InputPageBindings.HEADING_INPUT);
+        waitForElementVisible(InputPageBindings.INPUT_PROMPT);
     }
     
     /**
      * Waits for the rank button to become enabled
      */
     public void waitForRankButtonEnabled() {
-        waitForElementClickable(rankButton);
+        waitForElementClickable(InputPageBindings.RANK_BUTTON);
     }
 }
\ No newline at end of file
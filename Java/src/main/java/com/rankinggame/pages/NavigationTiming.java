@@ -0,0 +1,41 @@
+package com.rankinggame.pages;
+
+import java.time.Duration;
+
+/**
+ * Result of a navigation-aware action: where it ended up and how long it took
+ */
+public class NavigationTiming {
+    private final String url;
+    private final Duration duration;
+    private final String source;
+
+    /**
+     * Constructor for NavigationTiming
+     * @param url URL of the reached route
+     * @param duration Time from the start of the action until the route was reached
+     * @param source Signal that reported the navigation ("bidi", "history", "url" or "page")
+     */
+    public NavigationTiming(String url, Duration duration, String source) {
+        this.url = url;
+        this.duration = duration;
+        this.source = source;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return url + " in " + duration.toMillis() + "ms (" + source + ")";
+    }
+}
@@ -0,0 +1,65 @@
+package com.rankinggame.pages;
+
+import com.rankinggame.utils.VisualCheckResult;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultsPage extends BasePage {
+
+    // Heading and Reset button as on the input page. The ranking is read by the entered
+    // item texts (see findShownItems), so neither its route nor its markup is assumed.
+    private final By headingInput = By.id("headingInput");
+    private final By resetButton = By.cssSelector(".resetBtn");
+
+    /**
+     * Constructor for the ResultsPage
+     * @param driver WebDriver instance
+     */
+    public ResultsPage(WebDriver driver) {
+        super(driver);
+    }
+
+    /**
+     * Gets the main heading text
+     * @return Heading text
+     */
+    public String getHeadingText() {
+        return getText(headingInput);
+    }
+
+    /**
+     * Reads the final ranking in one call
+     * @param items Items entered for the tournament
+     * @return Items from first to last place, without their position numbers
+     */
+    public List<String> getRanking(List<String> items) {
+        return new ArrayList<>(findShownItems(items).keySet());
+    }
+
+    /**
+     * Clicks the Reset button and waits until the splash page is shown
+     * @return Navigation URL and duration
+     */
+    public NavigationTiming clickResetButtonAndWaitForSplash() {
+        return clickAndWaitForRoute(resetButton, "/", SplashPage.shown());
+    }
+
+    /**
+     * Compares the results page against its baseline
+     * @return Comparison result
+     */
+    public VisualCheckResult checkResultsVisuals() {
+        return checkVisual("results");
+    }
+
+    /**
+     * Waits for the ranking to list every item
+     * @param items Items entered for the tournament
+     */
+    public void waitForPageToLoad(List<String> items) {
+        wait.until(d -> findShownItems(items).size() == items.size());
+    }
+}
@@ -1,48 +1,53 @@
 package com.rankinggame.pages;
 
+import com.rankinggame.utils.VisualCheckResult;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 public class SplashPage extends BasePage {
 
+    // @FindBy fields are package-private so the generated SplashPageBindings can assign them
+
     // Page title and prompt elements
     @FindBy(id = "headingInput")
-    private WebElement headingTitle;
+    WebElement headingTitle;
 
     @FindBy(id = "splashPrompt")
-    private WebElement splashPrompt;
+    WebElement splashPrompt;
     
     @FindBy(className = "splashPromptContainer")
-    private WebElement splashPromptContainer;
+    WebElement splashPromptContainer;
 
     // Input field and related buttons
     @FindBy(id = "topicInput")
-    private WebElement topicInputField;
+    WebElement topicInputField;
 
     @FindBy(css = ".splashClearTopicButton.round-button.clear")
-    private WebElement clearTopicButton;
+    WebElement clearTopicButton;
 
     @FindBy(id = "submitTopicButton")
-    private WebElement submitTopicButton;
+    WebElement submitTopicButton;
 
     // Audio elements
     private final By audioElements = By.tagName("audio");
     
     // Footer elements
     @FindBy(className = "volume-control")
-    private WebElement volumeControl;
+    WebElement volumeControl;
 
     @FindBy(css = ".footer .copyright")
-    private WebElement copyright;
+    WebElement copyright;
 
     // Animation containers
     @FindBy(className = "slideLeftToRight")
-    private WebElement slideLeftToRightContainer;
+    WebElement slideLeftToRightContainer;
 
     @FindBy(className = "slideBottomToTop")
-    private WebElement slideBottomToTopContainer;
+    WebElement slideBottomToTopContainer;
 
     /**
      * Constructor for the SplashPage
@@ -52,6 +57,24 @@ public class SplashPage extends BasePage {
         super(driver);
     }
 
+    /**
+     * Condition that holds once the splash page is rendered. The topic input
+     * only exists on the splash page, so this also tells it apart from pages
+     * served on the same route.
+     * @return Wait condition
+     */
+    static ExpectedCondition<WebElement> shown() {
+        return ExpectedConditions.visibilityOfElementLocated(SplashPageBindings.TOPIC_INPUT_FIELD);
+    }
+
+    /**
+     * Checks whether the splash page is the page currently shown
+     * @return true if the topic input is displayed
+     */
+    public boolean isShown() {
+        return isElementDisplayed(topicInputField);
+    }
+
     /**
      * Enters a topic in the input field
      * @param topic The topic to enter
@@ -166,6 +189,32 @@ public class SplashPage extends BasePage {
         return hasClass(submitTopicButton, "submitTopicButtonDisabled");
     }
 
+    /**
+     * Compares the splash page against its baseline, ignoring the marquee
+     * prompt and the slide animation containers
+     * @return Comparison result
+     */
+    public VisualCheckResult checkSplashVisuals() {
+        return checkVisual("splash", SplashPageBindings.SPLASH_PROMPT_CONTAINER,
+                SplashPageBindings.SLIDE_LEFT_TO_RIGHT_CONTAINER, SplashPageBindings.SLIDE_BOTTOM_TO_TOP_CONTAINER);
+    }
+
+    /**
+     * Checks right away, without waiting, whether the left-to-right slide container is visible
+     * @return true if displayed, false otherwise
+     */
+    public boolean isLeftToRightSlideDisplayed() {
+        return isElementDisplayed(slideLeftToRightContainer);
+    }
+
+    /**
+     * Checks right away, without waiting, whether the bottom-to-top slide container is visible
+     * @return true if displayed, false otherwise
+     */
+    public boolean isBottomToTopSlideDisplayed() {
+        return isElementDisplayed(slideBottomToTopContainer);
+    }
+
     /**
      * Waits for the left-to-right slide animation container to be visible
      */
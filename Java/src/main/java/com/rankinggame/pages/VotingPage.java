@@ -0,0 +1,179 @@
+package com.rankinggame.pages;
+
+import com.rankinggame.utils.Matchup;
+import com.rankinggame.utils.RankingOracle;
+import com.rankinggame.utils.RunConfig;
+import com.rankinggame.utils.VisualCheckResult;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriver.Timeouts;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class VotingPage extends BasePage {
+
+    private static final String ROUTE = "/matchup";
+
+    // Plays every remaining matchup inside the page and reports them once the ranking is shown;
+    // bails out on a repeated pair, a matchup that stays up after a click, or too many matchups
+    private static final String PLAY_TOURNAMENT_SCRIPT =
+            "var items = arguments[0], stallMs = arguments[1], maxMatchups = arguments[2];" +
+            "var done = arguments[arguments.length - 1];" +
+            "var find = " + FIND_SHOWN_ITEMS_FUNCTION + ";" +
+            "var played = [], seen = {}, last = null, lastChange = Date.now();" +
+            "var step = function() {" +
+            "  var shown = find(items), key = shown.names.join(' vs ');" +
+            "  if (shown.names.length === items.length) { done(played); return; }" +
+            "  if (shown.names.length !== 2 || key === last) {" +
+            "    if (Date.now() - lastChange > stallMs) {" +
+            "      done(last === null ? 'No matchup shown after ' + stallMs + 'ms'" +
+            "          : 'Matchup ' + last + ' still shown ' + stallMs + 'ms after choosing');" +
+            "      return;" +
+            "    }" +
+            "    setTimeout(step, 10); return;" +
+            "  }" +
+            "  var pair = shown.names.slice().sort().join('\\u0000');" +
+            "  if (seen[pair]) { done('Repeated matchup ' + key); return; }" +
+            "  if (played.length >= maxMatchups) { done('Tournament did not finish after ' + played.length + ' matchups'); return; }" +
+            "  var winner = items.indexOf(shown.names[0]) <= items.indexOf(shown.names[1]) ? 0 : 1;" +
+            "  seen[pair] = true;" +
+            "  last = key;" +
+            "  lastChange = Date.now();" +
+            "  played.push([shown.names[0], shown.names[1], shown.names[winner]]);" +
+            "  shown.elements[winner].click();" +
+            "  setTimeout(step, 0);" +
+            "};" +
+            "step();";
+
+    // Heading shared with the other screens. The matchup options are found by the
+    // entered item texts (see findShownItems) rather than by their markup.
+    private final By headingInput = By.id("headingInput");
+
+    /**
+     * Constructor for the VotingPage
+     * @param driver WebDriver instance
+     */
+    public VotingPage(WebDriver driver) {
+        super(driver);
+    }
+
+    /**
+     * Gets the main heading text
+     * @return Heading text
+     */
+    public String getHeadingText() {
+        return getText(headingInput);
+    }
+
+    /**
+     * Gets both options of the current matchup in one call
+     * @param items Items entered for the tournament
+     * @return Option texts in display order, or an empty list if no matchup is shown
+     */
+    public List<String> getCurrentMatchup(List<String> items) {
+        Map<String, WebElement> shown = findShownItems(items);
+        return shown.size() == 2 ? new ArrayList<>(shown.keySet()) : List.of();
+    }
+
+    /**
+     * Clicks the option with the given text and waits for the next matchup
+     * or for the ranking
+     * @param items Items entered for the tournament
+     * @param item Option text to choose
+     */
+    public void choose(List<String> items, String item) {
+        Map<String, WebElement> shown = findShownItems(items);
+        if (shown.size() != 2 || !shown.containsKey(item)) {
+            throw new IllegalArgumentException(item + " is not in the current matchup " + shown.keySet());
+        }
+        List<String> options = new ArrayList<>(shown.keySet());
+        click(shown.get(item));
+        wait.until(d -> !options.equals(new ArrayList<>(findShownItems(items).keySet())));
+    }
+
+    /**
+     * Plays the whole tournament through real clicks, always choosing the
+     * item that comes first in the preference order. The app presents up to
+     * n * (n - 1) / 2 matchups; the tournament ends when every item is shown
+     * in the ranking.
+     * @param preferenceOrder Items from most to least preferred
+     * @return Matchups in the order they were played
+     */
+    public List<Matchup> playTournament(List<String> preferenceOrder) {
+        int maxMatchups = RankingOracle.matchupCount(preferenceOrder.size());
+        List<Matchup> played = new ArrayList<>();
+        while (true) {
+            List<String> shown = wait.until(d -> {
+                List<String> names = new ArrayList<>(findShownItems(preferenceOrder).keySet());
+                return names.size() == 2 || names.size() == preferenceOrder.size() ? names : null;
+            });
+            if (shown.size() == preferenceOrder.size()) {
+                return played;
+            }
+            if (played.size() >= maxMatchups) {
+                throw new IllegalStateException("Tournament did not finish after " + played.size() + " matchups");
+            }
+            String winner = RankingOracle.preferred(preferenceOrder, shown.get(0), shown.get(1));
+            choose(preferenceOrder, winner);
+            played.add(new Matchup(shown.get(0), shown.get(1), winner));
+        }
+    }
+
+    /**
+     * Plays the whole tournament with a single async script that clicks the
+     * preferred option in the page and waits for each re-render, instead of
+     * two or more WebDriver round trips per matchup
+     * @param preferenceOrder Items from most to least preferred
+     * @return Matchups in the order they were played
+     */
+    public List<Matchup> playTournamentBatched(List<String> preferenceOrder) {
+        waitForPageToLoad();
+        int maxMatchups = RankingOracle.matchupCount(preferenceOrder.size());
+        Duration stall = RunConfig.current().getWaitTimeout();
+        Timeouts timeouts = driver.manage().timeouts();
+        Duration previous = timeouts.getScriptTimeout();
+        // The script gives up on a stalled matchup after one wait timeout; allow a generous
+        // second per matchup on top, so the script timeout itself is never what ends it
+        timeouts.scriptTimeout(previous.plus(stall).plusSeconds(maxMatchups));
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeAsyncScript(
+                    PLAY_TOURNAMENT_SCRIPT, preferenceOrder, stall.toMillis(), maxMatchups);
+        } finally {
+            timeouts.scriptTimeout(previous);
+        }
+        if (!(result instanceof List)) {
+            throw new IllegalStateException(String.valueOf(result));
+        }
+        List<Matchup> played = new ArrayList<>();
+        for (Object entry : (List<?>) result) {
+            List<?> matchup = (List<?>) entry;
+            played.add(new Matchup(String.valueOf(matchup.get(0)), String.valueOf(matchup.get(1)),
+                    String.valueOf(matchup.get(2))));
+        }
+        return played;
+    }
+
+    /**
+     * Waits for a matchup and compares the page against its baseline
+     * @param items Items entered for the tournament
+     * @return Comparison result
+     */
+    public VisualCheckResult checkMatchupVisuals(List<String> items) {
+        wait.until(d -> !getCurrentMatchup(items).isEmpty());
+        return checkVisual("matchup");
+    }
+
+    /**
+     * Waits for the matchup route; the first matchup itself is awaited by the
+     * tournament methods, which know the items to look for
+     */
+    public void waitForPageToLoad() {
+        wait.until(d -> isOnRoute(ROUTE));
+    }
+}
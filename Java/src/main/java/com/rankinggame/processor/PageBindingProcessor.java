@@ -0,0 +1,283 @@
+package com.rankinggame.processor;
+
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.Trees;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a binding class for every BasePage subclass at compile time.
+ * For a page Foo it writes FooBindings with one By constant per @FindBy
+ * field and per By field, a bind() method that assigns the @FindBy fields
+ * directly, and a locators() map of declared locators by field name.
+ * GeneratedPageBindings dispatches to them from the BasePage constructor,
+ * which replaces PageFactory.initElements and its reflection and proxies.
+ */
+@SupportedAnnotationTypes("*")
+public class PageBindingProcessor extends AbstractProcessor {
+
+    private static final String BASE_PAGE = "com.rankinggame.pages.BasePage";
+    private static final String FIND_BY = "org.openqa.selenium.support.FindBy";
+    private static final String BY = "org.openqa.selenium.By";
+    private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+
+    private Trees trees;
+    private final List<TypeElement> pages = new ArrayList<>();
+    private boolean indexWritten;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        try {
+            trees = Trees.instance(processingEnv);
+        } catch (IllegalArgumentException e) {
+            // Not running inside javac: By fields cannot be read, @FindBy fields still can
+            trees = null;
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement basePage = processingEnv.getElementUtils().getTypeElement(BASE_PAGE);
+        if (basePage == null) {
+            return false;
+        }
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            if (!type.equals(basePage) && !type.getModifiers().contains(Modifier.ABSTRACT)
+                    && processingEnv.getTypeUtils().isSubtype(type.asType(), basePage.asType())) {
+                writeBindings(type);
+                pages.add(type);
+            }
+        }
+        if (!indexWritten && !pages.isEmpty()) {
+            writeIndex();
+            indexWritten = true;
+        }
+        return false;
+    }
+
+    private void writeBindings(TypeElement page) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(page).getQualifiedName().toString();
+        String pageName = page.getSimpleName().toString();
+        Map<String, String> locators = new LinkedHashMap<>();
+        List<String> boundFields = new ArrayList<>();
+
+        for (VariableElement field : ElementFilter.fieldsIn(page.getEnclosedElements())) {
+            AnnotationMirror findBy = findAnnotation(field, FIND_BY);
+            if (findBy != null) {
+                if (!isType(field.asType(), WEB_ELEMENT)) {
+                    error(field, "@FindBy bindings only support WebElement fields");
+                    continue;
+                }
+                if (field.getModifiers().contains(Modifier.PRIVATE)) {
+                    error(field, "@FindBy fields must not be private so generated bindings can assign them");
+                    continue;
+                }
+                String expression = locatorExpression(field, findBy);
+                if (expression != null) {
+                    locators.put(field.getSimpleName().toString(), expression);
+                    boundFields.add(field.getSimpleName().toString());
+                }
+            } else if (isType(field.asType(), BY)) {
+                String expression = initializerOf(field);
+                if (expression != null) {
+                    locators.put(field.getSimpleName().toString(), expression);
+                }
+            }
+        }
+
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n");
+        source.append("import org.openqa.selenium.By;\n");
+        source.append("import org.openqa.selenium.WebDriver;\n\n");
+        source.append("import java.util.Collections;\n");
+        source.append("import java.util.LinkedHashMap;\n");
+        source.append("import java.util.Map;\n\n");
+        source.append("/**\n * Generated by PageBindingProcessor from ").append(pageName).append(". Do not edit.\n */\n");
+        source.append("public final class ").append(pageName).append("Bindings {\n\n");
+        for (Map.Entry<String, String> locator : locators.entrySet()) {
+            source.append("    public static final By ").append(constantName(locator.getKey()))
+                    .append(" = ").append(locator.getValue()).append(";\n");
+        }
+        source.append("\n    private static final Map<String, By> LOCATORS;\n\n");
+        source.append("    static {\n");
+        source.append("        Map<String, By> locators = new LinkedHashMap<>();\n");
+        for (String field : locators.keySet()) {
+            source.append("        locators.put(\"").append(field).append("\", ").append(constantName(field)).append(");\n");
+        }
+        source.append("        LOCATORS = Collections.unmodifiableMap(locators);\n");
+        source.append("    }\n\n");
+        source.append("    private ").append(pageName).append("Bindings() {\n    }\n\n");
+        source.append("    public static void bind(").append(pageName).append(" page, WebDriver driver) {\n");
+        for (String field : boundFields) {
+            source.append("        page.").append(field).append(" = new ")
+                    .append(isBoundElementVisible(packageName) ? "" : "com.rankinggame.pages.")
+                    .append("BoundElement(driver, ").append(constantName(field)).append(");\n");
+        }
+        source.append("    }\n\n");
+        source.append("    public static Map<String, By> locators() {\n");
+        source.append("        return LOCATORS;\n");
+        source.append("    }\n");
+        source.append("}\n");
+
+        write(packageName + "." + pageName + "Bindings", source.toString(), page);
+    }
+
+    private void writeIndex() {
+        StringBuilder source = new StringBuilder();
+        source.append("package com.rankinggame.pages;\n\n");
+        source.append("import org.openqa.selenium.By;\n");
+        source.append("import org.openqa.selenium.WebDriver;\n\n");
+        source.append("import java.util.Collections;\n");
+        source.append("import java.util.LinkedHashMap;\n");
+        source.append("import java.util.Map;\n\n");
+        source.append("/**\n * Generated by PageBindingProcessor. Do not edit.\n */\n");
+        source.append("public final class GeneratedPageBindings {\n\n");
+        source.append("    private GeneratedPageBindings() {\n    }\n\n");
+        source.append("    public static void bind(BasePage page, WebDriver driver) {\n");
+        for (TypeElement page : pages) {
+            String name = page.getQualifiedName().toString();
+            source.append("        if (page instanceof ").append(name).append(") {\n");
+            source.append("            ").append(name).append("Bindings.bind((").append(name).append(") page, driver);\n");
+            source.append("        }\n");
+        }
+        source.append("    }\n\n");
+        source.append("    public static Map<String, By> locators(Class<? extends BasePage> pageClass) {\n");
+        for (TypeElement page : pages) {
+            String name = page.getQualifiedName().toString();
+            source.append("        if (pageClass == ").append(name).append(".class) {\n");
+            source.append("            return ").append(name).append("Bindings.locators();\n");
+            source.append("        }\n");
+        }
+        source.append("        return Collections.emptyMap();\n");
+        source.append("    }\n\n");
+        source.append("    public static Map<String, By> allLocators() {\n");
+        source.append("        Map<String, By> locators = new LinkedHashMap<>();\n");
+        for (TypeElement page : pages) {
+            String name = page.getQualifiedName().toString();
+            source.append("        ").append(name).append("Bindings.locators().forEach((field, by) -> locators.put(\"")
+                    .append(page.getSimpleName()).append(".\" + field, by));\n");
+        }
+        source.append("        return locators;\n");
+        source.append("    }\n");
+        source.append("}\n");
+        write("com.rankinggame.pages.GeneratedPageBindings", source.toString(), pages.toArray(new Element[0]));
+    }
+
+    /**
+     * Translates a @FindBy annotation into the equivalent By factory call
+     */
+    private String locatorExpression(VariableElement field, AnnotationMirror findBy) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : findBy.getElementValues().entrySet()) {
+            values.put(entry.getKey().getSimpleName().toString(), entry.getValue().getValue().toString());
+        }
+        String[][] strategies = {
+                {"id", "By.id"}, {"name", "By.name"}, {"className", "By.className"}, {"css", "By.cssSelector"},
+                {"tagName", "By.tagName"}, {"linkText", "By.linkText"}, {"partialLinkText", "By.partialLinkText"},
+                {"xpath", "By.xpath"}};
+        for (String[] strategy : strategies) {
+            String value = values.get(strategy[0]);
+            if (value != null && !value.isEmpty()) {
+                return strategy[1] + "(" + literal(value) + ")";
+            }
+        }
+        String how = values.get("how");
+        String using = values.get("using");
+        if (how != null && using != null) {
+            switch (how) {
+                case "ID": return "By.id(" + literal(using) + ")";
+                case "NAME": return "By.name(" + literal(using) + ")";
+                case "CLASS_NAME": return "By.className(" + literal(using) + ")";
+                case "CSS": return "By.cssSelector(" + literal(using) + ")";
+                case "TAG_NAME": return "By.tagName(" + literal(using) + ")";
+                case "LINK_TEXT": return "By.linkText(" + literal(using) + ")";
+                case "PARTIAL_LINK_TEXT": return "By.partialLinkText(" + literal(using) + ")";
+                case "XPATH": return "By.xpath(" + literal(using) + ")";
+                case "ID_OR_NAME": return "new org.openqa.selenium.support.pagefactory.ByIdOrName(" + literal(using) + ")";
+                default: break;
+            }
+        }
+        error(field, "Unsupported @FindBy strategy on " + field.getSimpleName());
+        return null;
+    }
+
+    /**
+     * Copies a By field initializer such as By.id("x") from the source tree
+     */
+    private String initializerOf(VariableElement field) {
+        if (trees == null) {
+            return null;
+        }
+        VariableTree tree = (VariableTree) trees.getTree(field);
+        if (tree == null || tree.getInitializer() == null) {
+            return null;
+        }
+        String initializer = tree.getInitializer().toString();
+        // Only self-contained By factory calls can be moved into another class
+        return initializer.matches("By\\.\\w+\\(\"(?:[^\"\\\\]|\\\\.)*\"\\)") ? initializer : null;
+    }
+
+    private AnnotationMirror findAnnotation(Element element, String annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().toString().equals(annotationType)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private boolean isType(TypeMirror type, String qualifiedName) {
+        return type.toString().equals(qualifiedName);
+    }
+
+    private boolean isBoundElementVisible(String packageName) {
+        return packageName.equals("com.rankinggame.pages");
+    }
+
+    private static String constantName(String fieldName) {
+        return fieldName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private void write(String className, String source, Element... originatingElements) {
+        try (Writer writer = processingEnv.getFiler().createSourceFile(className, originatingElements).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + className + ": " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
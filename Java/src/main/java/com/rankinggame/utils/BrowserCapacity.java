@@ -0,0 +1,116 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.TimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits concurrent local sessions per browser during a cross-browser matrix
+ * run (matrix.capacity.&lt;browser&gt;, default matrix.capacity.default) and,
+ * optionally, overall (matrix.maxSessions). Both limits are fair semaphores,
+ * so threads waiting for a session are served in arrival order and one
+ * browser's queue cannot starve another's.
+ */
+public class BrowserCapacity {
+
+    private static final int DEFAULT_CAPACITY = 2;
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_SEC = 300;
+
+    private static final Map<String, Semaphore> perBrowser = new ConcurrentHashMap<>();
+    private static Semaphore total;
+
+    private BrowserCapacity() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether a cross-browser matrix is configured
+     * @return true if matrix.browsers lists at least one browser
+     */
+    public static boolean isEnabled() {
+        return !browsers().isEmpty();
+    }
+
+    /**
+     * Browsers of the matrix run
+     * @return Browser names from matrix.browsers, lower case
+     */
+    public static List<String> browsers() {
+        List<String> browsers = new ArrayList<>();
+        for (String browser : RunConfig.current().getString("matrix.browsers", "").split(",")) {
+            if (!browser.isBlank()) {
+                browsers.add(browser.trim().toLowerCase());
+            }
+        }
+        return browsers;
+    }
+
+    /**
+     * Maximum concurrent sessions of one browser
+     * @param browser Browser name
+     * @return Configured capacity
+     */
+    public static int capacity(String browser) {
+        RunConfig config = RunConfig.current();
+        return config.getInt("matrix.capacity." + browser, config.getInt("matrix.capacity.default", DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Waits for a free session slot of the browser (and of the whole run)
+     * @param browser Browser name
+     * @throws TimeoutException if no slot frees up within matrix.acquireTimeoutSec
+     */
+    public static void acquire(String browser) {
+        Semaphore browserSlots = perBrowser.computeIfAbsent(browser, b -> new Semaphore(capacity(b), true));
+        long timeoutSec = acquireTimeoutSec();
+        try {
+            if (!browserSlots.tryAcquire(timeoutSec, TimeUnit.SECONDS)) {
+                throw new TimeoutException("No " + browser + " session slot became free within " + timeoutSec + "s");
+            }
+            // Take the shared slot last, so a thread waiting for its browser does not hold it
+            Semaphore totalSlots = totalSlots();
+            if (totalSlots != null && !totalSlots.tryAcquire(timeoutSec, TimeUnit.SECONDS)) {
+                browserSlots.release();
+                throw new TimeoutException("No session slot became free within " + timeoutSec + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for a " + browser + " session slot", e);
+        }
+    }
+
+    /**
+     * Returns a slot taken by acquire
+     * @param browser Browser name
+     */
+    public static void release(String browser) {
+        Semaphore totalSlots = totalSlots();
+        if (totalSlots != null) {
+            totalSlots.release();
+        }
+        Semaphore browserSlots = perBrowser.get(browser);
+        if (browserSlots != null) {
+            browserSlots.release();
+        }
+    }
+
+    private static synchronized Semaphore totalSlots() {
+        if (total == null) {
+            int maxSessions = RunConfig.current().getInt("matrix.maxSessions", 0);
+            if (maxSessions <= 0) {
+                return null;
+            }
+            total = new Semaphore(maxSessions, true);
+        }
+        return total;
+    }
+
+    private static long acquireTimeoutSec() {
+        return RunConfig.current().getLong("matrix.acquireTimeoutSec", DEFAULT_ACQUIRE_TIMEOUT_SEC);
+    }
+}
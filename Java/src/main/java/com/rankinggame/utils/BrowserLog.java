@@ -0,0 +1,178 @@
+package com.rankinggame.utils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Console messages and uncaught JavaScript exceptions of one session, kept in
+ * a fixed-size ring buffer. Entries are added from the BiDi/DevTools event
+ * thread without locking; readers take a snapshot and never block it. Error
+ * counters are kept separately so "no uncaught errors" checks cost nothing.
+ */
+public class BrowserLog {
+
+    /**
+     * Where a log entry came from
+     */
+    public enum Source {
+        CONSOLE,
+        EXCEPTION
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong uncaughtErrors = new AtomicLong();
+    private final AtomicLong consoleErrors = new AtomicLong();
+    private volatile long uncaughtErrorsAtMark;
+    private volatile long consoleErrorsAtMark;
+    private volatile long sequenceAtMark;
+
+    BrowserLog(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    void add(Source source, String level, String text, long timestampMillis) {
+        long seq = sequence.getAndIncrement();
+        slots.set((int) (seq % slots.length()), new Entry(seq, source, level, text, timestampMillis));
+        if (source == Source.EXCEPTION) {
+            uncaughtErrors.incrementAndGet();
+        } else if ("error".equalsIgnoreCase(level)) {
+            consoleErrors.incrementAndGet();
+        }
+    }
+
+    /**
+     * Starts a new test: error checks and {@link #entriesSinceMark()} only look at what follows
+     */
+    public void mark() {
+        sequenceAtMark = sequence.get();
+        uncaughtErrorsAtMark = uncaughtErrors.get();
+        consoleErrorsAtMark = consoleErrors.get();
+    }
+
+    /**
+     * @return Uncaught JavaScript exceptions since the last mark
+     */
+    public long getUncaughtErrorCount() {
+        return uncaughtErrors.get() - uncaughtErrorsAtMark;
+    }
+
+    /**
+     * @return console.error calls since the last mark
+     */
+    public long getConsoleErrorCount() {
+        return consoleErrors.get() - consoleErrorsAtMark;
+    }
+
+    /**
+     * @return Entries overwritten because the buffer was full
+     */
+    public long getDroppedCount() {
+        return Math.max(0, sequence.get() - slots.length());
+    }
+
+    /**
+     * Fails if the page threw an uncaught exception since the last mark
+     * @throws AssertionError listing the buffered entries
+     */
+    public void assertNoUncaughtErrors() {
+        if (getUncaughtErrorCount() > 0) {
+            throw new AssertionError(getUncaughtErrorCount() + " uncaught JavaScript error(s):\n" + format(entriesSinceMark()));
+        }
+    }
+
+    /**
+     * Fails if the page threw an uncaught exception or logged a console error since the last mark
+     * @throws AssertionError listing the buffered entries
+     */
+    public void assertNoErrors() {
+        assertNoUncaughtErrors();
+        if (getConsoleErrorCount() > 0) {
+            throw new AssertionError(getConsoleErrorCount() + " console error(s):\n" + format(entriesSinceMark()));
+        }
+    }
+
+    /**
+     * @return Snapshot of all buffered entries, oldest first
+     */
+    public List<Entry> entries() {
+        return entriesFrom(0);
+    }
+
+    /**
+     * @return Snapshot of buffered entries added since the last mark, oldest first
+     */
+    public List<Entry> entriesSinceMark() {
+        return entriesFrom(sequenceAtMark);
+    }
+
+    private List<Entry> entriesFrom(long first) {
+        long end = sequence.get();
+        long start = Math.max(first, end - slots.length());
+        List<Entry> entries = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            Entry entry = slots.get((int) (seq % slots.length()));
+            // Skip slots already overwritten or not yet published by the writer
+            if (entry != null && entry.sequence == seq) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Formats entries one per line for reports
+     * @param entries Entries to format
+     * @return Report text
+     */
+    public static String format(List<Entry> entries) {
+        StringBuilder text = new StringBuilder();
+        for (Entry entry : entries) {
+            text.append(entry).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * One console message or uncaught exception
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final Source source;
+        private final String level;
+        private final String text;
+        private final long timestampMillis;
+
+        Entry(long sequence, Source source, String level, String text, long timestampMillis) {
+            this.sequence = sequence;
+            this.source = source;
+            this.level = level;
+            this.text = text;
+            this.timestampMillis = timestampMillis;
+        }
+
+        public Source getSource() {
+            return source;
+        }
+
+        public String getLevel() {
+            return level;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Instant getTimestamp() {
+            return Instant.ofEpochMilli(timestampMillis);
+        }
+
+        @Override
+        public String toString() {
+            return getTimestamp() + " " + source + " " + level + ": " + text;
+        }
+    }
+}
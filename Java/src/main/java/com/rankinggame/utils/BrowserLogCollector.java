@@ -0,0 +1,169 @@
+package com.rankinggame.utils;
+
+import com.rankinggame.utils.BrowserLog.Source;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.LogInspector;
+import org.openqa.selenium.bidi.log.BaseLogEntry;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Streams console messages and uncaught exceptions of each session into its
+ * {@link BrowserLog}. Sessions with a BiDi channel use log.entryAdded events;
+ * Chromium sessions without one fall back to DevTools Runtime events, scoped
+ * to their own tab when they share a browser.
+ */
+public class BrowserLogCollector {
+
+    private static final int DEFAULT_CAPACITY = 1000;
+
+    private static final Map<WebDriver, Subscription> subscriptions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private BrowserLogCollector() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether browser logs are collected
+     * @return true unless browserlog.enabled is false
+     */
+    public static boolean isEnabled() {
+        return RunConfig.current().getBoolean("browserlog.enabled", true);
+    }
+
+    /**
+     * Subscribes to the log events of a new session
+     * @param session Driver session
+     * @param contextOnly true if the session shares its browser and should only see its own window
+     */
+    public static void attach(WebDriver session, boolean contextOnly) {
+        BrowserLog log = new BrowserLog(capacity());
+        AutoCloseable source = null;
+        try {
+            if (session instanceof HasBiDi && ((HasBiDi) session).maybeGetBiDi().isPresent()) {
+                source = subscribeBiDi(session, log, contextOnly);
+            } else if (session instanceof HasDevTools) {
+                source = subscribeDevTools(session, log, contextOnly);
+            }
+        } catch (WebDriverException e) {
+            System.err.println("Browser logs unavailable for this session: " + e.getMessage());
+        }
+        subscriptions.put(session, new Subscription(log, source));
+    }
+
+    /**
+     * Stops collecting for a session that is about to quit
+     * @param session Driver session passed to attach, or a decorator around it
+     */
+    public static void detach(WebDriver session) {
+        WebDriver attached = find(session);
+        Subscription subscription = attached == null ? null : subscriptions.remove(attached);
+        if (subscription != null && subscription.source != null) {
+            try {
+                subscription.source.close();
+            } catch (Exception e) {
+                // The connection goes away with the session anyway
+            }
+        }
+    }
+
+    /**
+     * Finds the log of a session, looking through decorators and proxies
+     * @param driver WebDriver instance as handed to tests
+     * @return The session's log, or null if it is not collected
+     */
+    public static BrowserLog forDriver(WebDriver driver) {
+        WebDriver attached = find(driver);
+        Subscription subscription = attached == null ? null : subscriptions.get(attached);
+        return subscription == null ? null : subscription.log;
+    }
+
+    private static WebDriver find(WebDriver driver) {
+        return CdpSupport.findInWrapChain(driver, subscriptions::containsKey);
+    }
+
+    private static AutoCloseable subscribeBiDi(WebDriver session, BrowserLog log, boolean contextOnly) {
+        LogInspector inspector = contextOnly
+                ? new LogInspector(session.getWindowHandle(), session)
+                : new LogInspector(session);
+        inspector.onConsoleEntry(entry -> add(log, Source.CONSOLE, entry));
+        inspector.onJavaScriptException(entry -> add(log, Source.EXCEPTION, entry));
+        return inspector;
+    }
+
+    private static void add(BrowserLog log, Source source, BaseLogEntry entry) {
+        log.add(source, String.valueOf(entry.getLevel()), entry.getText(), entry.getTimestamp());
+    }
+
+    private static AutoCloseable subscribeDevTools(WebDriver session, BrowserLog log, boolean contextOnly) {
+        DevTools devTools = ((HasDevTools) session).getDevTools();
+        if (contextOnly) {
+            // Attach to this session's own tab rather than whichever target DevTools picks first
+            devTools.createSession(session.getWindowHandle());
+        } else {
+            devTools.createSessionIfThereIsNotOne();
+        }
+        devTools.send(new Command<Void>("Runtime.enable", Map.of()));
+        devTools.addListener(new Event<Map<String, Object>>("Runtime.consoleAPICalled",
+                input -> input.read(Json.MAP_TYPE)), event -> log.add(Source.CONSOLE,
+                String.valueOf(event.get("type")), consoleText(event.get("args")), timestamp(event)));
+        devTools.addListener(new Event<Map<String, Object>>("Runtime.exceptionThrown",
+                input -> input.read(Json.MAP_TYPE)), event -> log.add(Source.EXCEPTION,
+                "error", exceptionText(event.get("exceptionDetails")), timestamp(event)));
+        return devTools::clearListeners;
+    }
+
+    private static String consoleText(Object args) {
+        if (!(args instanceof List)) {
+            return "";
+        }
+        return ((List<?>) args).stream().map(arg -> {
+            Map<?, ?> remote = (Map<?, ?>) arg;
+            Object value = remote.containsKey("value") ? remote.get("value") : remote.get("description");
+            return String.valueOf(value);
+        }).collect(Collectors.joining(" "));
+    }
+
+    private static String exceptionText(Object details) {
+        if (!(details instanceof Map)) {
+            return "";
+        }
+        Map<?, ?> map = (Map<?, ?>) details;
+        Object exception = map.get("exception");
+        if (exception instanceof Map && ((Map<?, ?>) exception).get("description") != null) {
+            return String.valueOf(((Map<?, ?>) exception).get("description"));
+        }
+        return String.valueOf(map.get("text"));
+    }
+
+    private static long timestamp(Map<String, Object> event) {
+        Object timestamp = event.get("timestamp");
+        // Runtime.exceptionThrown and consoleAPICalled report milliseconds since the epoch
+        return timestamp instanceof Number ? ((Number) timestamp).longValue() : System.currentTimeMillis();
+    }
+
+    private static int capacity() {
+        return RunConfig.current().getInt("browserlog.capacity", DEFAULT_CAPACITY);
+    }
+
+    private static final class Subscription {
+        private final BrowserLog log;
+        private final AutoCloseable source;
+
+        Subscription(BrowserLog log, AutoCloseable source) {
+            this.log = log;
+            this.source = source;
+        }
+    }
+}
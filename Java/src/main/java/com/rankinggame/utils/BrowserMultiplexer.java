@@ -0,0 +1,344 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs several isolated tests inside one Chromium process. Each lease gets
+ * its own browser context (separate cookies, storage and cache, like an
+ * incognito profile) with a single tab, exposed as a WebDriver handle that
+ * page objects use like any other driver.
+ *
+ * The browser is launched once; every lease then attaches its own driver
+ * session to it through the DevTools debugger address and binds that
+ * session to its tab. Commands of different leases therefore run in
+ * parallel, and a slow page load in one context does not hold up the
+ * others. The gain is memory and startup time (one browser per
+ * multiplex.contextsPerBrowser tests).
+ */
+public class BrowserMultiplexer {
+
+    private static final int DEFAULT_CONTEXTS_PER_BROWSER = 4;
+
+    private static final List<SharedBrowser> browsers = new ArrayList<>();
+    private static final Map<WebDriver, ContextDecorator> leases = new ConcurrentHashMap<>();
+    private static boolean shutdownHookRegistered = false;
+
+    /**
+     * Starts a driver session on an already running browser
+     */
+    @FunctionalInterface
+    public interface SessionAttacher {
+        /**
+         * @param debuggerAddress host:port of the browser's DevTools endpoint
+         * @return New session attached to the browser
+         */
+        WebDriver attach(String debuggerAddress) throws Exception;
+    }
+
+    private BrowserMultiplexer() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether context multiplexing is switched on for the given browser
+     * @param browser Browser name from configuration
+     * @return true if multiplex.enabled is set and the browser is Chromium-based
+     */
+    public static boolean isEnabled(String browser) {
+        return RunConfig.current().getBoolean("multiplex.enabled", false)
+                && ("chrome".equals(browser) || "edge".equals(browser));
+    }
+
+    /**
+     * Leases an isolated context, starting a new browser only when every
+     * shared browser is at capacity
+     * @param browserName Browser name from configuration; contexts only share a browser of the same kind
+     * @param browserFactory Launches a new Chromium session
+     * @param attacher Attaches a session to a running browser, one per lease
+     * @return Driver handle bound to the new context; quit() releases the context
+     */
+    public static WebDriver lease(String browserName, Callable<WebDriver> browserFactory,
+                                  SessionAttacher attacher) throws Exception {
+        SharedBrowser host = reserve(browserName);
+        if (host == null) {
+            // A launch takes seconds; other threads keep leasing from running browsers meanwhile
+            host = launch(browserName, browserFactory);
+        }
+        boolean opened = false;
+        try {
+            WebDriver context = host.openContext(attacher);
+            opened = true;
+            return context;
+        } finally {
+            if (!opened) {
+                free(host, true);
+            }
+        }
+    }
+
+    /**
+     * Releases the context behind a leased handle, e.g. one whose test hung.
+     * Disposing the context closes its tab, so a command blocked on it
+     * fails; the other contexts in the browser are not touched.
+     * @param driver Leased handle, or a decorator around it
+     * @return false if the driver is not a leased context
+     */
+    public static boolean release(WebDriver driver) {
+        WebDriver leased = CdpSupport.findInWrapChain(driver, leases::containsKey);
+        ContextDecorator lease = leased == null ? null : leases.get(leased);
+        if (lease == null) {
+            return false;
+        }
+        lease.release();
+        return true;
+    }
+
+    /**
+     * Gets the browser session that hosts a leased context
+     * @param driver Leased handle, or a decorator around it
+     * @return Host session, or null if the driver is not a leased context
+     */
+    public static WebDriver hostOf(WebDriver driver) {
+        WebDriver leased = CdpSupport.findInWrapChain(driver, leases::containsKey);
+        ContextDecorator lease = leased == null ? null : leases.get(leased);
+        return lease == null ? null : lease.host.session;
+    }
+
+    /**
+     * Quits every shared browser
+     */
+    public static void shutdown() {
+        List<SharedBrowser> running;
+        synchronized (browsers) {
+            running = new ArrayList<>(browsers);
+            browsers.clear();
+        }
+        running.forEach(SharedBrowser::quit);
+    }
+
+    private static SharedBrowser reserve(String browserName) {
+        synchronized (browsers) {
+            int capacity = contextsPerBrowser();
+            for (SharedBrowser browser : browsers) {
+                if (browser.name.equals(browserName) && browser.reserved < capacity) {
+                    browser.reserved++;
+                    return browser;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static SharedBrowser launch(String browserName, Callable<WebDriver> browserFactory) throws Exception {
+        WebDriver session = browserFactory.call();
+        String debuggerAddress = session instanceof ChromiumDriver ? debuggerAddress((ChromiumDriver) session) : null;
+        if (debuggerAddress == null) {
+            session.quit();
+            DriverServicePool.release(session);
+            throw new IllegalArgumentException("Context multiplexing requires a local Chromium-based browser");
+        }
+        SharedBrowser host = new SharedBrowser(browserName, (ChromiumDriver) session, debuggerAddress);
+        synchronized (browsers) {
+            host.reserved = 1;
+            browsers.add(host);
+            if (!shutdownHookRegistered) {
+                Runtime.getRuntime().addShutdownHook(new Thread(BrowserMultiplexer::shutdown, "browser-multiplexer-shutdown"));
+                shutdownHookRegistered = true;
+            }
+        }
+        return host;
+    }
+
+    /**
+     * Gives a context slot back. When a call on the browser failed and its
+     * session turns out to be gone (crashed or killed), the browser is
+     * dropped so later leases start a new one instead of failing on it.
+     */
+    private static void free(SharedBrowser host, boolean hostCallFailed) {
+        synchronized (browsers) {
+            host.reserved = Math.max(0, host.reserved - 1);
+        }
+        if (hostCallFailed && !host.isAlive()) {
+            boolean removed;
+            synchronized (browsers) {
+                removed = browsers.remove(host);
+            }
+            if (removed) {
+                System.err.println("Shared " + host.name + " browser is gone, dropping it");
+                host.quit();
+            }
+        }
+    }
+
+    private static String debuggerAddress(ChromiumDriver session) {
+        Capabilities capabilities = session.getCapabilities();
+        for (String vendor : new String[]{"goog:chromeOptions", "ms:edgeOptions"}) {
+            Object options = capabilities.getCapability(vendor);
+            if (options instanceof Map && ((Map<?, ?>) options).get("debuggerAddress") != null) {
+                return ((Map<?, ?>) options).get("debuggerAddress").toString();
+            }
+        }
+        return null;
+    }
+
+    private static int contextsPerBrowser() {
+        return RunConfig.current().getInt("multiplex.contextsPerBrowser", DEFAULT_CONTEXTS_PER_BROWSER);
+    }
+
+    /**
+     * One real browser session hosting several contexts. Its own session
+     * only creates and disposes contexts; tests never drive it.
+     */
+    private static final class SharedBrowser {
+        private final String name;
+        private final ChromiumDriver session;
+        private final String debuggerAddress;
+        // Guarded by browsers
+        private int reserved;
+
+        SharedBrowser(String name, ChromiumDriver session, String debuggerAddress) {
+            this.name = name;
+            this.session = session;
+            this.debuggerAddress = debuggerAddress;
+        }
+
+        WebDriver openContext(SessionAttacher attacher) throws Exception {
+            Map<String, Object> context = session.executeCdpCommand("Target.createBrowserContext",
+                    Map.of("disposeOnDetach", false));
+            String contextId = (String) context.get("browserContextId");
+            WebDriver tab = null;
+            try {
+                Map<String, Object> target = session.executeCdpCommand("Target.createTarget",
+                        Map.of("url", "about:blank", "browserContextId", contextId));
+                // ChromeDriver uses the DevTools target id as the window handle
+                String handle = (String) target.get("targetId");
+                tab = attacher.attach(debuggerAddress);
+                tab.switchTo().window(handle);
+                ContextDecorator lease = new ContextDecorator(this, contextId, handle, tab);
+                WebDriver leased = lease.decorate(tab);
+                lease.leased = leased;
+                leases.put(leased, lease);
+                return leased;
+            } catch (Exception e) {
+                try {
+                    session.executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", contextId));
+                } catch (WebDriverException disposeError) {
+                    e.addSuppressed(disposeError);
+                }
+                if (tab != null) {
+                    detach(tab);
+                }
+                throw e;
+            }
+        }
+
+        void closeContext(String contextId, WebDriver tab) {
+            boolean failed = true;
+            try {
+                // Closes the tab first, so a command still blocked on it returns
+                session.executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", contextId));
+                failed = false;
+            } finally {
+                detach(tab);
+                free(this, failed);
+            }
+        }
+
+        /**
+         * Ends a lease's own session. Attached sessions only disconnect on
+         * quit, the browser keeps running.
+         */
+        private void detach(WebDriver tab) {
+            try {
+                tab.quit();
+            } catch (WebDriverException e) {
+                // The driver lost its tab with the context
+            } finally {
+                DriverServicePool.release(tab);
+                SessionMonitor.forget(tab);
+            }
+        }
+
+        boolean isAlive() {
+            try {
+                session.executeCdpCommand("Browser.getVersion", Map.of());
+                return true;
+            } catch (WebDriverException e) {
+                return false;
+            }
+        }
+
+        void quit() {
+            try {
+                session.quit();
+            } catch (WebDriverException e) {
+                System.err.println("Error quitting shared browser: " + e.getMessage());
+            } finally {
+                DriverServicePool.release(session);
+                SessionMonitor.forget(session);
+            }
+        }
+    }
+
+    /**
+     * Keeps a leased handle to its own tab and turns quit()/close() into a
+     * context release
+     */
+    private static final class ContextDecorator extends WebDriverDecorator<WebDriver> {
+        private final SharedBrowser host;
+        private final String contextId;
+        private final String handle;
+        private final WebDriver tab;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private WebDriver leased;
+
+        ContextDecorator(SharedBrowser host, String contextId, String handle, WebDriver tab) {
+            this.host = host;
+            this.contextId = contextId;
+            this.handle = handle;
+            this.tab = tab;
+        }
+
+        @Override
+        public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+            boolean driverCall = target.getOriginal() instanceof WebDriver;
+            String name = method.getName();
+            if (driverCall && ("quit".equals(name) || "close".equals(name)) && method.getParameterCount() == 0) {
+                release();
+                return null;
+            }
+            if (closed.get()) {
+                throw new WebDriverException("Browser context " + contextId + " has been released");
+            }
+            if (driverCall && "getWindowHandles".equals(name)) {
+                // The attached session sees the tabs of every context in the browser
+                return Set.of(handle);
+            }
+            return super.call(target, method, args);
+        }
+
+        void release() {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    host.closeContext(contextId, tab);
+                } finally {
+                    leases.remove(leased);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Version-independent access to Chrome DevTools Protocol commands for
+ * Chromium sessions, including sessions wrapped by decorators
+ */
+public class CdpSupport {
+
+    private CdpSupport() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether the driver (or a driver it wraps) can run CDP commands
+     * @param driver WebDriver instance
+     * @return true for Chromium-based sessions
+     */
+    public static boolean isAvailable(WebDriver driver) {
+        return find(driver) != null;
+    }
+
+    /**
+     * Runs a CDP command. Calls go through the outermost driver that supports
+     * CDP so decorators still see them.
+     * @param driver WebDriver instance
+     * @param command CDP method name, e.g. "Performance.getMetrics"
+     * @param params Command parameters
+     * @return Command result
+     */
+    public static Map<String, Object> execute(WebDriver driver, String command, Map<String, Object> params) {
+        HasCdp cdp = find(driver);
+        if (cdp == null) {
+            throw new UnsupportedOperationException("DevTools commands need a Chromium-based browser: " + command);
+        }
+        return cdp.executeCdpCommand(command, params);
+    }
+
+    /**
+     * Strips all decorators and proxies from a driver
+     * @param driver WebDriver instance
+     * @return The underlying driver session
+     */
+    public static WebDriver unwrap(WebDriver driver) {
+        WebDriver current = driver;
+        while (current instanceof WrapsDriver) {
+            WebDriver wrapped = ((WrapsDriver) current).getWrappedDriver();
+            if (wrapped == null || wrapped == current) {
+                break;
+            }
+            current = wrapped;
+        }
+        return current;
+    }
+
+    /**
+     * Walks from a driver inwards through the decorators and proxies it wraps
+     * @param driver WebDriver instance as handed to tests
+     * @param match Test for the wanted driver, e.g. a registry's containsKey
+     * @return The outermost matching driver, or null if none matches
+     */
+    public static WebDriver findInWrapChain(WebDriver driver, Predicate<WebDriver> match) {
+        WebDriver current = driver;
+        while (current != null) {
+            if (match.test(current)) {
+                return current;
+            }
+            if (!(current instanceof WrapsDriver)) {
+                return null;
+            }
+            WebDriver wrapped = ((WrapsDriver) current).getWrappedDriver();
+            current = wrapped == current ? null : wrapped;
+        }
+        return null;
+    }
+
+    private static HasCdp find(WebDriver driver) {
+        return (HasCdp) findInWrapChain(driver, current -> current instanceof HasCdp);
+    }
+}
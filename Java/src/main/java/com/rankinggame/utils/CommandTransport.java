@@ -0,0 +1,79 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.remote.http.ClientConfig;
+
+import java.time.Duration;
+
+/**
+ * HTTP transport settings for the WebDriver command channel. Every page
+ * object call is one HTTP request to the driver, so on localhost the client
+ * side of that round trip matters: sessions get a ClientConfig with
+ * transport.connectTimeoutMs, transport.readTimeoutSec, transport.httpVersion
+ * and optional retries, and the JDK client's connection pool is tuned once
+ * per JVM (transport.keepAliveSec, transport.poolSize) so connections to the
+ * driver stay open between commands. transport.factory selects the
+ * HttpClient.Factory by name.
+ */
+public class CommandTransport {
+
+    private static final long DEFAULT_CONNECT_TIMEOUT_MS = 10_000;
+    private static final long DEFAULT_READ_TIMEOUT_SEC = 180;
+    private static final String DEFAULT_HTTP_VERSION = "HTTP_1_1";
+
+    private static boolean jvmConfigured = false;
+
+    private CommandTransport() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Builds the client configuration for a new session, applying the
+     * JVM-wide connection pool settings on first use
+     * @return Client configuration; the driver sets the base URL
+     */
+    public static ClientConfig clientConfig() {
+        configureJvm();
+        RunConfig run = RunConfig.current();
+        ClientConfig config = ClientConfig.defaultConfig()
+                .connectionTimeout(Duration.ofMillis(run.getLong("transport.connectTimeoutMs", DEFAULT_CONNECT_TIMEOUT_MS)))
+                .readTimeout(Duration.ofSeconds(run.getLong("transport.readTimeoutSec", DEFAULT_READ_TIMEOUT_SEC)))
+                .version(run.getString("transport.httpVersion", DEFAULT_HTTP_VERSION));
+        if (run.getBoolean("transport.retries", false)) {
+            config = config.withRetries();
+        }
+        return config;
+    }
+
+    /**
+     * Describes the settings in effect, for benchmark reports
+     * @return Human-readable summary
+     */
+    public static String describe() {
+        return "factory=" + System.getProperty("webdriver.http.factory", "jdk-http-client")
+                + " version=" + RunConfig.current().getString("transport.httpVersion", DEFAULT_HTTP_VERSION)
+                + " keepAlive=" + System.getProperty("jdk.httpclient.keepalive.timeout", "1200") + "s"
+                + " poolSize=" + System.getProperty("jdk.httpclient.connectionPoolSize", "0")
+                + " retries=" + RunConfig.current().getBoolean("transport.retries", false);
+    }
+
+    /**
+     * The JDK HTTP client reads its pool settings once, when the first
+     * client is created, so they are set before any session exists.
+     * Values already given on the command line win.
+     */
+    private static synchronized void configureJvm() {
+        if (jvmConfigured) {
+            return;
+        }
+        setIfAbsent("webdriver.http.factory", RunConfig.current().get("transport.factory"));
+        setIfAbsent("jdk.httpclient.keepalive.timeout", RunConfig.current().get("transport.keepAliveSec"));
+        setIfAbsent("jdk.httpclient.connectionPoolSize", RunConfig.current().get("transport.poolSize"));
+        jvmConfigured = true;
+    }
+
+    private static void setIfAbsent(String key, String value) {
+        if (value != null && !value.isBlank() && System.getProperty(key) == null) {
+            System.setProperty(key, value.trim());
+        }
+    }
+}
@@ -1,24 +1,33 @@
 package com.rankinggame.utils;
 
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.util.Properties;
-
+/**
+ * String access to the run configuration, for code that looks values up by
+ * key. Values come from the current thread's {@link RunConfig} snapshot.
+ */
 public class ConfigReader {
-    private static Properties properties;
 
-    static {
-        properties = new Properties();
-        try {
-            FileInputStream inputStream = new FileInputStream("src/main/resources/config.properties");
-            properties.load(inputStream);
-            inputStream.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private ConfigReader() {
+        // Prevent instantiation
     }
 
+    /**
+     * Gets a configuration value. A value set for the current thread wins,
+     * then a JVM system property with the same key (e.g. -Dbrowser=remote),
+     * then an RG_ environment variable, then config.properties.
+     * @param key Property key
+     * @return Property value, or null if not set
+     */
     public static String getProperty(String key) {
-        return properties.getProperty(key);
+        return RunConfig.current().get(key);
+    }
+
+    /**
+     * Overrides a value for the current thread only, e.g. the browser of a
+     * cross-browser matrix worker
+     * @param key Property key
+     * @param value Value, or null to remove the override
+     */
+    public static void setThreadOverride(String key, String value) {
+        RunConfig.setThreadOverride(key, value);
     }
-}
\ No newline at end of file
+}
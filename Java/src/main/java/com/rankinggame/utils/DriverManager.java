@@ -1,21 +1,42 @@
 package com.rankinggame.utils;
 
+import com.rankinggame.utils.SessionProfiler.Phase;
 import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
 import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariDriverService;
+import org.openqa.selenium.safari.SafariOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
 
 public class DriverManager {
 
     private static ThreadLocal<WebDriver> driver = new ThreadLocal<>();
-    private static boolean driverInitialized = false;
+    private static ThreadLocal<GridSessionScheduler.Endpoint> gridEndpoint = new ThreadLocal<>();
+    private static ThreadLocal<SessionHandle> sessionHandle = new ThreadLocal<>();
+    private static ThreadLocal<String> capacityLease = new ThreadLocal<>();
+    private static ThreadLocal<EmulationProfile> emulationProfile = new ThreadLocal<>();
+    private static ThreadLocal<Boolean> driverInitialized = ThreadLocal.withInitial(() -> false);
 
     private DriverManager() {
         // Prevent instantiation
@@ -29,73 +50,462 @@ public class DriverManager {
     }
 
     private static void initializeDriver() {
-        if (driverInitialized) {
+        if (driverInitialized.get()) {
             return; // Prevent re-initialization if driver is being reused
         }
-        
-        String browser = ConfigReader.getProperty("browser").toLowerCase();
-        boolean headless = Boolean.parseBoolean(ConfigReader.getProperty("headless"));
 
         try {
-            switch (browser) {
-                case "chrome":
-                    WebDriverManager.chromedriver().setup();
-                    ChromeOptions chromeOptions = new ChromeOptions();
-                    if (headless) chromeOptions.addArguments("--headless=new");
-                    // Add options to improve stability and reduce resource usage
-                    chromeOptions.addArguments("--disable-dev-shm-usage");
-                    chromeOptions.addArguments("--no-sandbox");
-                    chromeOptions.addArguments("--disable-extensions");
-                    chromeOptions.addArguments("--disable-gpu");
-                    driver.set(new ChromeDriver(chromeOptions));
-                    break;
-
-                case "firefox":
-                    WebDriverManager.firefoxdriver().setup();
-                    FirefoxOptions firefoxOptions = new FirefoxOptions();
-                    if (headless) firefoxOptions.addArguments("--headless");
-                    driver.set(new FirefoxDriver(firefoxOptions));
-                    break;
-
-                case "edge":
-                    WebDriverManager.edgedriver().setup();
-                    EdgeOptions edgeOptions = new EdgeOptions();
-                    if (headless) edgeOptions.addArguments("--headless");
-                    driver.set(new EdgeDriver(edgeOptions));
-                    break;
-
-                case "safari":
-                    driver.set(new SafariDriver());
-                    break;
-
-                default:
-                    throw new IllegalArgumentException("Browser " + browser + " is not supported");
+            String browser = RunConfig.current().getBrowser();
+            if (BrowserCapacity.isEnabled() && !browser.equals("remote")) {
+                // Grid sessions are limited by GridSessionScheduler instead
+                BrowserCapacity.acquire(browser);
+                capacityLease.set(browser);
             }
-
-            WebDriver currentDriver = driver.get();
-            if (currentDriver != null) {
-                currentDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-                currentDriver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-                currentDriver.manage().window().maximize();
-                driverInitialized = true;
+            WebDriver session = openSession();
+            if (SessionMonitor.isRecyclingEnabled() || SessionWatchdog.isEnabled()) {
+                // Hand out a stable reference so the session can be replaced between tests
+                SessionHandle handle = new SessionHandle(session);
+                sessionHandle.set(handle);
+                driver.set(handle.getProxy());
+            } else {
+                driver.set(session);
             }
+            driverInitialized.set(true);
         } catch (Exception e) {
+            releaseGridSlot();
+            releaseCapacity();
             System.err.println("Error initializing driver: " + e.getMessage());
             e.printStackTrace();
             throw new RuntimeException("Failed to initialize WebDriver", e);
         }
     }
 
+    /**
+     * Creates and configures a session for the configured browser
+     * @return Ready-to-use driver session
+     */
+    private static WebDriver openSession() throws Exception {
+        try {
+            RunConfig config = RunConfig.current();
+            String browser = config.getBrowser();
+            boolean headless = config.isHeadless();
+
+            String optionsBrowser = browser;
+            if (browser.equals("remote")) {
+                // Sessions run on a Selenium Grid; the browser is chosen by remoteBrowser
+                optionsBrowser = config.getString("remoteBrowser", "chrome").toLowerCase(Locale.ROOT);
+            }
+            MutableCapabilities options = createOptions(optionsBrowser, headless);
+            boolean multiplexed = BrowserMultiplexer.isEnabled(browser);
+            WebDriver session = multiplexed
+                    ? BrowserMultiplexer.lease(browser, () -> createSession(browser, options),
+                            debuggerAddress -> createSession(browser, attachOptions(browser, debuggerAddress)))
+                    : createSession(browser, options);
+            if (BrowserLogCollector.isEnabled()) {
+                BrowserLogCollector.attach(session, multiplexed);
+            }
+
+            long start = System.nanoTime();
+            session.manage().timeouts().implicitlyWait(config.getImplicitWait());
+            session.manage().timeouts().pageLoadTimeout(config.getPageLoadTimeout());
+            SessionProfiler.record(Phase.TIMEOUTS, start);
+            start = System.nanoTime();
+            session.manage().window().maximize();
+            SessionProfiler.record(Phase.WINDOW_MAXIMIZE, start);
+            SessionProfiler.sessionStarted(browser, options.asMap());
+            WebDriver instrumented = instrument(session);
+            emulationProfile.remove();
+            applyEmulation(instrumented, EmulationProfile.named(config.getEmulationProfile()));
+            return instrumented;
+        } finally {
+            // A failed start must not leave its phases behind for the next session on this thread
+            SessionProfiler.discardCurrent();
+        }
+    }
+
+    /**
+     * Wraps a session with the command listeners enabled in configuration
+     * @param session Driver session
+     * @return The session, decorated if any listener is enabled
+     */
+    private static WebDriver instrument(WebDriver session) {
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (SessionWatchdog.isEnabled()) {
+            listeners.add(SessionWatchdog.watch(session));
+        }
+        if (FlightRecorder.isEnabled()) {
+            listeners.add(FlightRecorder.record(session));
+        }
+        if (LocatorProfiler.isEnabled()) {
+            listeners.add(LocatorProfiler.listener());
+        }
+        if (EmulationTimings.isEnabled()) {
+            listeners.add(EmulationTimings.listener());
+        }
+        if (listeners.isEmpty()) {
+            return session;
+        }
+        return new EventFiringDecorator<>(listeners.toArray(new WebDriverListener[0])).decorate(session);
+    }
+
+    /**
+     * Applies network and CPU conditions to a session unless already in effect
+     * @param session Driver session
+     * @param profile Emulation profile
+     */
+    private static void applyEmulation(WebDriver session, EmulationProfile profile) {
+        if (profile.getName().equals(getEmulationProfile().getName())) {
+            return;
+        }
+        if (profile.apply(session)) {
+            emulationProfile.set(profile);
+        } else {
+            System.err.println("Emulation profile " + profile + " needs a Chromium-based browser, running unthrottled");
+            emulationProfile.set(EmulationProfile.NONE);
+        }
+    }
+
+    /**
+     * Starts a new browser session
+     * @param browser Browser name from configuration (chrome, firefox, edge, safari or remote)
+     * @param options Options built by createOptions for that browser
+     * @return New driver session
+     */
+    private static WebDriver createSession(String browser, MutableCapabilities options) throws IOException {
+        long start;
+        WebDriver session;
+        switch (browser) {
+            case "chrome":
+                start = System.nanoTime();
+                WebDriverManager.chromedriver().setup();
+                SessionProfiler.record(Phase.DRIVER_RESOLUTION, start);
+                ChromeDriverService chromeService = acquireService(browser, ChromeDriverService::createDefaultService);
+                start = System.nanoTime();
+                session = onService(chromeService, () -> new ChromeDriver(chromeService, (ChromeOptions) options, CommandTransport.clientConfig()));
+                break;
+
+            case "firefox":
+                start = System.nanoTime();
+                WebDriverManager.firefoxdriver().setup();
+                SessionProfiler.record(Phase.DRIVER_RESOLUTION, start);
+                GeckoDriverService geckoService = acquireService(browser, GeckoDriverService::createDefaultService);
+                start = System.nanoTime();
+                session = onService(geckoService, () -> new FirefoxDriver(geckoService, (FirefoxOptions) options, CommandTransport.clientConfig()));
+                break;
+
+            case "edge":
+                start = System.nanoTime();
+                WebDriverManager.edgedriver().setup();
+                SessionProfiler.record(Phase.DRIVER_RESOLUTION, start);
+                EdgeDriverService edgeService = acquireService(browser, EdgeDriverService::createDefaultService);
+                start = System.nanoTime();
+                session = onService(edgeService, () -> new EdgeDriver(edgeService, (EdgeOptions) options, CommandTransport.clientConfig()));
+                break;
+
+            case "safari":
+                SafariDriverService safariService = startService(SafariDriverService.createDefaultService());
+                start = System.nanoTime();
+                session = new SafariDriver(safariService, (SafariOptions) options, CommandTransport.clientConfig());
+                SessionMonitor.register(session, safariService);
+                break;
+
+            case "remote":
+                GridSessionScheduler.Endpoint endpoint = GridSessionScheduler.getInstance().acquire();
+                gridEndpoint.set(endpoint);
+                start = System.nanoTime();
+                session = new RemoteWebDriver(
+                        new HttpCommandExecutor(CommandTransport.clientConfig().baseUrl(endpoint.getUrl())), options);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Browser " + browser + " is not supported");
+        }
+        SessionProfiler.record(Phase.NEW_SESSION, start);
+        return session;
+    }
+
+    /**
+     * Builds the browser options shared by local and remote sessions
+     * @param browser Browser name (chrome, firefox, edge or safari)
+     * @param headless Whether to run without a visible window
+     * @return Browser-specific options
+     */
+    private static MutableCapabilities createOptions(String browser, boolean headless) {
+        MutableCapabilities options = createBrowserOptions(browser, headless);
+        if (!"safari".equals(browser) && RunConfig.current().getBoolean("bidi", true)) {
+            // Opens the WebDriver BiDi channel used for navigation events
+            options.setCapability("webSocketUrl", true);
+        }
+        return options;
+    }
+
+    /**
+     * Builds options for a session that drives an already running Chromium
+     * browser instead of launching one
+     * @param browser Browser name (chrome or edge)
+     * @param debuggerAddress host:port of the browser's DevTools endpoint
+     * @return Browser-specific options
+     */
+    private static MutableCapabilities attachOptions(String browser, String debuggerAddress) {
+        ChromiumOptions<?> options = "edge".equals(browser) ? new EdgeOptions() : new ChromeOptions();
+        options.setExperimentalOption("debuggerAddress", debuggerAddress);
+        if (RunConfig.current().getBoolean("bidi", true)) {
+            // Leased sessions need the BiDi channel too, for navigation events and browser logs
+            options.setCapability("webSocketUrl", true);
+        }
+        return options;
+    }
+
+    private static MutableCapabilities createBrowserOptions(String browser, boolean headless) {
+        switch (browser) {
+            case "chrome":
+                ChromeOptions chromeOptions = new ChromeOptions();
+                if (headless) chromeOptions.addArguments("--headless=new");
+                // Add options to improve stability and reduce resource usage
+                chromeOptions.addArguments("--disable-dev-shm-usage");
+                chromeOptions.addArguments("--no-sandbox");
+                chromeOptions.addArguments("--disable-extensions");
+                chromeOptions.addArguments("--disable-gpu");
+                return chromeOptions;
+
+            case "firefox":
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                if (headless) firefoxOptions.addArguments("--headless");
+                return firefoxOptions;
+
+            case "edge":
+                EdgeOptions edgeOptions = new EdgeOptions();
+                if (headless) edgeOptions.addArguments("--headless");
+                return edgeOptions;
+
+            case "safari":
+                return new SafariOptions();
+
+            default:
+                throw new IllegalArgumentException("Browser " + browser + " is not supported");
+        }
+    }
+
+    /**
+     * Gets a driver service for a new session: a slot on a shared service
+     * when the pool is enabled for the browser, otherwise a dedicated one
+     * @param browser Browser name
+     * @param dedicated Creates a dedicated service
+     * @return Running service
+     */
+    private static <S extends DriverService> S acquireService(String browser, Supplier<S> dedicated) throws IOException {
+        if (DriverServicePool.isEnabled(browser)) {
+            return DriverServicePool.lease(browser);
+        }
+        return startService(dedicated.get());
+    }
+
+    /**
+     * Creates a session on a service and registers it for monitoring; a
+     * failed launch gives its shared-service slot back
+     * @param service Service from acquireService
+     * @param launch Starts the browser session
+     * @return New driver session
+     */
+    private static WebDriver onService(DriverService service, Supplier<WebDriver> launch) {
+        WebDriver session;
+        try {
+            session = launch.get();
+        } catch (RuntimeException e) {
+            DriverServicePool.release(service);
+            throw e;
+        }
+        DriverServicePool.bind(session, service);
+        SessionMonitor.register(session, service);
+        return session;
+    }
+
+    /**
+     * Starts the driver process up front so its spawn time is profiled
+     * separately from the browser launch
+     * @param service Driver service to start
+     * @return The started service
+     */
+    private static <S extends DriverService> S startService(S service) throws IOException {
+        long start = System.nanoTime();
+        service.start();
+        SessionProfiler.record(Phase.SERVICE_START, start);
+        return service;
+    }
+
+    private static void releaseGridSlot() {
+        GridSessionScheduler.Endpoint endpoint = gridEndpoint.get();
+        if (endpoint != null) {
+            GridSessionScheduler.getInstance().release(endpoint);
+            gridEndpoint.remove();
+        }
+    }
+
+    private static void releaseCapacity() {
+        String browser = capacityLease.get();
+        if (browser != null) {
+            BrowserCapacity.release(browser);
+            capacityLease.remove();
+        }
+    }
+
+    /**
+     * Replaces the current session if the watchdog killed it; otherwise samples
+     * it and, when recycling is enabled and a threshold is exceeded, replaces it
+     * with a fresh session at the same URL
+     */
+    public static void afterTest() {
+        WebDriver currentDriver = driver.get();
+        if (currentDriver == null) {
+            return;
+        }
+        SessionHandle handle = sessionHandle.get();
+        if (handle != null && SessionWatchdog.hangOf(handle.getTarget()) != null) {
+            recycle(handle);
+            return;
+        }
+        if (!SessionMonitor.isEnabled()) {
+            return;
+        }
+        WebDriver session = handle != null ? handle.getTarget() : currentDriver;
+        String browser = RunConfig.current().getBrowser();
+        SessionMonitor.Sample sample = SessionMonitor.testFinished(session);
+        boolean recycle = handle != null && SessionMonitor.shouldRecycle(sample);
+        SessionMonitor.write(browser, sample, recycle);
+        if (recycle) {
+            recycle(handle);
+        }
+    }
+
+    private static void recycle(SessionHandle handle) {
+        WebDriver oldSession = handle.getTarget();
+        String url = null;
+        try {
+            url = oldSession.getCurrentUrl();
+        } catch (RuntimeException e) {
+            // Session is unusable; the replacement starts blank
+        }
+        try {
+            closeSession(oldSession);
+        } catch (RuntimeException e) {
+            // Already dead (killed by the watchdog); its bookkeeping was still released
+        }
+        try {
+            WebDriver newSession = openSession();
+            handle.swap(newSession);
+            if (url != null && url.startsWith("http")) {
+                newSession.get(url);
+            }
+        } catch (Exception e) {
+            driver.remove();
+            sessionHandle.remove();
+            driverInitialized.remove();
+            releaseCapacity();
+            throw new RuntimeException("Failed to recycle WebDriver session", e);
+        }
+    }
+
+    private static void closeSession(WebDriver session) {
+        long start = System.nanoTime();
+        try {
+            session.quit();
+        } finally {
+            SessionProfiler.record(Phase.QUIT, start);
+            SessionMonitor.forget(session);
+            BrowserLogCollector.detach(session);
+            SessionWatchdog.forget(session);
+            FlightRecorder.forget(session);
+            NetworkMocks.detach(session);
+            DriverServicePool.release(session);
+            releaseGridSlot();
+        }
+    }
+
+    /**
+     * Gets the console and JavaScript error log of the current thread's session
+     * @return Browser log, or null if logs are not collected for this session
+     */
+    public static BrowserLog getBrowserLog() {
+        WebDriver currentDriver = driver.get();
+        return currentDriver == null ? null : BrowserLogCollector.forDriver(currentDriver);
+    }
+
+    /**
+     * Gets the command flight recording of the current thread's session
+     * @return Recording, or null if the session is not recorded
+     */
+    public static FlightRecorder.Recording getFlightRecording() {
+        WebDriver currentDriver = driver.get();
+        return currentDriver == null ? null : FlightRecorder.forDriver(currentDriver);
+    }
+
+    /**
+     * Gets the Grid endpoint the current thread's session was scheduled on
+     * @return Endpoint, or null if the session does not run on a Grid
+     */
+    public static GridSessionScheduler.Endpoint getGridEndpoint() {
+        return gridEndpoint.get();
+    }
+
+    /**
+     * Gets the canned-response mocks of the current thread's session
+     * @return Network mocks, or null if no session is open
+     * @throws UnsupportedOperationException if the browser is not Chromium-based
+     */
+    public static NetworkMocks getNetworkMocks() {
+        WebDriver currentDriver = driver.get();
+        return currentDriver == null ? null : NetworkMocks.forDriver(currentDriver);
+    }
+
+    /**
+     * Reports whether the watchdog killed the current thread's session during the last test
+     * @return The hang failure, or null
+     */
+    public static SessionHangException getSessionHang() {
+        WebDriver currentDriver = driver.get();
+        return currentDriver == null ? null : SessionWatchdog.hangOf(currentDriver);
+    }
+
+    /**
+     * Switches the current thread to a named network and CPU profile. The
+     * current session is throttled right away, later sessions when they open.
+     * @param profileName Profile name (see EmulationProfile), or null for the configured emulation.profile
+     */
+    public static void emulate(String profileName) {
+        ConfigReader.setThreadOverride("emulation.profile", profileName);
+        EmulationProfile profile = EmulationProfile.named(RunConfig.current().getEmulationProfile());
+        WebDriver currentDriver = driver.get();
+        if (currentDriver != null) {
+            applyEmulation(currentDriver, profile);
+        }
+    }
+
+    /**
+     * Gets the network and CPU profile in effect for the current thread's session
+     * @return Emulation profile, NONE if the session is unthrottled
+     */
+    public static EmulationProfile getEmulationProfile() {
+        EmulationProfile profile = emulationProfile.get();
+        return profile == null ? EmulationProfile.NONE : profile;
+    }
+
     public static void quitDriver() {
         WebDriver currentDriver = driver.get();
         if (currentDriver != null) {
-            currentDriver.quit();
-            driver.remove();
-            driverInitialized = false;
+            SessionHandle handle = sessionHandle.get();
+            try {
+                closeSession(handle != null ? handle.getTarget() : currentDriver);
+            } finally {
+                driver.remove();
+                sessionHandle.remove();
+                driverInitialized.remove();
+                emulationProfile.remove();
+                releaseCapacity();
+            }
         }
     }
-    
+
     public static void resetDriver() {
-        driverInitialized = false;
+        driverInitialized.remove();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,389 @@
+package com.rankinggame.utils;
+
+import com.rankinggame.utils.SessionProfiler.Phase;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps long-lived chromedriver, geckodriver and msedgedriver processes that
+ * many sessions share, so a new session only pays for the browser launch.
+ * A service takes up to service.sessionsPerService concurrent sessions
+ * (geckodriver serves one at a time, so Firefox services are reused one
+ * session after another). Services are health-checked every
+ * service.healthCheckSec via their /status endpoint; a failed service takes
+ * no new sessions and is replaced once its sessions are gone. All services
+ * are stopped at suite end.
+ *
+ * Shared services ignore stop(), which every driver's quit() calls on its
+ * service; only the pool shuts them down.
+ */
+public class DriverServicePool {
+
+    private static final int DEFAULT_SESSIONS_PER_SERVICE = 8;
+    private static final long DEFAULT_HEALTH_CHECK_SEC = 30;
+    private static final int STATUS_TIMEOUT_MS = 2000;
+    private static final int FAILURES_BEFORE_REPLACEMENT = 2;
+
+    private static final Map<String, List<PooledService>> pools = new HashMap<>();
+    private static final Map<WebDriver, PooledService> bindings = Collections.synchronizedMap(new WeakHashMap<>());
+    private static ScheduledExecutorService healthChecker;
+    private static boolean shutdownHookRegistered = false;
+
+    private DriverServicePool() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether sessions of a browser share driver services
+     * @param browser Browser name from configuration
+     * @return true unless service.shared is false; Safari always gets its own service
+     */
+    public static boolean isEnabled(String browser) {
+        return RunConfig.current().getBoolean("service.shared", true)
+                && ("chrome".equals(browser) || "firefox".equals(browser) || "edge".equals(browser));
+    }
+
+    /**
+     * Reserves a session slot on a running service, starting a new service
+     * only when every healthy one is full
+     * @param browser chrome, firefox or edge
+     * @return Running service; pass it to bind() or release()
+     * @throws IOException if a new service cannot be started
+     */
+    @SuppressWarnings("unchecked")
+    public static <S extends DriverService> S lease(String browser) throws IOException {
+        PooledService pooled = reserve(browser);
+        if (pooled == null) {
+            // Starting a driver takes a while; other threads keep leasing from running services meanwhile
+            pooled = publish(browser, start(browser));
+        }
+        return (S) pooled.service;
+    }
+
+    /**
+     * Records which service a new session runs on, so quitting it frees the slot
+     * @param session Driver session created on the service
+     * @param service Service returned by lease()
+     */
+    public static synchronized void bind(WebDriver session, DriverService service) {
+        PooledService pooled = find(service);
+        if (pooled != null) {
+            bindings.put(session, pooled);
+        }
+    }
+
+    /**
+     * Frees the slot of a session that has been quit
+     * @param session Driver session passed to bind(), or a decorator around it
+     */
+    public static synchronized void release(WebDriver session) {
+        WebDriver bound = CdpSupport.findInWrapChain(session, bindings::containsKey);
+        PooledService pooled = bound == null ? null : bindings.remove(bound);
+        if (pooled != null) {
+            free(pooled);
+        }
+    }
+
+    /**
+     * Frees a slot whose session could not be created. The service is
+     * replaced, since it may be the reason (e.g. a geckodriver still holding
+     * a killed session).
+     * @param service Service returned by lease()
+     */
+    public static synchronized void release(DriverService service) {
+        PooledService pooled = find(service);
+        if (pooled != null) {
+            pooled.failed = true;
+            free(pooled);
+        }
+    }
+
+    /**
+     * Stops all shared services
+     */
+    public static synchronized void shutdown() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+            healthChecker = null;
+        }
+        for (List<PooledService> pool : pools.values()) {
+            pool.forEach(PooledService::shutdown);
+        }
+        pools.clear();
+        bindings.clear();
+    }
+
+    private static synchronized PooledService reserve(String browser) {
+        int capacity = sessionsPerService(browser);
+        for (PooledService pooled : pools.computeIfAbsent(browser, b -> new ArrayList<>())) {
+            if (!pooled.failed && pooled.sessions < capacity && pooled.service.isRunning()) {
+                pooled.sessions++;
+                return pooled;
+            }
+        }
+        return null;
+    }
+
+    private static synchronized PooledService publish(String browser, DriverService service) {
+        PooledService pooled = new PooledService(browser, service);
+        pooled.sessions = 1;
+        pools.computeIfAbsent(browser, b -> new ArrayList<>()).add(pooled);
+        startHealthChecks();
+        return pooled;
+    }
+
+    private static void free(PooledService pooled) {
+        pooled.sessions = Math.max(0, pooled.sessions - 1);
+        if (pooled.failed && pooled.sessions == 0) {
+            pooled.shutdown();
+            pools.get(pooled.browser).remove(pooled);
+        }
+    }
+
+    private static PooledService find(DriverService service) {
+        for (List<PooledService> pool : pools.values()) {
+            for (PooledService pooled : pool) {
+                if (pooled.service == service) {
+                    return pooled;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static DriverService start(String browser) throws IOException {
+        DriverService service;
+        switch (browser) {
+            case "chrome":
+                service = new SharedChromeService.Builder().build();
+                break;
+            case "firefox":
+                service = new SharedGeckoService.Builder().build();
+                break;
+            case "edge":
+                service = new SharedEdgeService.Builder().build();
+                break;
+            default:
+                throw new IllegalArgumentException("Browser " + browser + " has no shareable driver service");
+        }
+        long start = System.nanoTime();
+        service.start();
+        SessionProfiler.record(Phase.SERVICE_START, start);
+        return service;
+    }
+
+    private static void startHealthChecks() {
+        if (healthChecker == null) {
+            long period = healthCheckSec();
+            healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "driver-service-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+            healthChecker.scheduleWithFixedDelay(DriverServicePool::checkHealth, period, period, TimeUnit.SECONDS);
+        }
+        if (!shutdownHookRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread(DriverServicePool::shutdown, "driver-service-shutdown"));
+            shutdownHookRegistered = true;
+        }
+    }
+
+    private static void checkHealth() {
+        List<PooledService> services = new ArrayList<>();
+        synchronized (DriverServicePool.class) {
+            pools.values().forEach(services::addAll);
+        }
+        // Probe outside the lock so leases are not held up by a slow service
+        for (PooledService pooled : services) {
+            boolean healthy = pooled.service.isRunning() && respondsToStatus(pooled.service.getUrl());
+            synchronized (DriverServicePool.class) {
+                pooled.failures = healthy ? 0 : pooled.failures + 1;
+                if (!pooled.failed && pooled.failures >= FAILURES_BEFORE_REPLACEMENT) {
+                    System.err.println("Driver service " + pooled.service.getUrl() + " (" + pooled.browser
+                            + ") failed its health check, replacing it");
+                    pooled.failed = true;
+                }
+                if (pooled.failed && pooled.sessions == 0) {
+                    pooled.shutdown();
+                    List<PooledService> pool = pools.get(pooled.browser);
+                    if (pool != null) {
+                        pool.remove(pooled);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean respondsToStatus(URL url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url, "/status").openConnection();
+            connection.setConnectTimeout(STATUS_TIMEOUT_MS);
+            connection.setReadTimeout(STATUS_TIMEOUT_MS);
+            try {
+                return connection.getResponseCode() == 200;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int sessionsPerService(String browser) {
+        if ("firefox".equals(browser)) {
+            // geckodriver only runs one session at a time
+            return 1;
+        }
+        return RunConfig.current().getInt("service.sessionsPerService", DEFAULT_SESSIONS_PER_SERVICE);
+    }
+
+    private static long healthCheckSec() {
+        return RunConfig.current().getLong("service.healthCheckSec", DEFAULT_HEALTH_CHECK_SEC);
+    }
+
+    /**
+     * Checks whether a service is owned by the pool
+     * @param service Driver service
+     * @return true if quitting its sessions leaves it running
+     */
+    static boolean isShared(DriverService service) {
+        return service instanceof Shared;
+    }
+
+    /**
+     * Sessions and health of one shared service
+     */
+    private static final class PooledService {
+        private final String browser;
+        private final DriverService service;
+        private int sessions;
+        private int failures;
+        private boolean failed;
+
+        PooledService(String browser, DriverService service) {
+            this.browser = browser;
+            this.service = service;
+        }
+
+        void shutdown() {
+            try {
+                ((Shared) service).shutdown();
+            } catch (RuntimeException e) {
+                System.err.println("Error stopping driver service: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Service whose process outlives the sessions running on it
+     */
+    private interface Shared {
+        void shutdown();
+    }
+
+    private static final class SharedChromeService extends ChromeDriverService implements Shared {
+        SharedChromeService(File executable, int port, Duration timeout, List<String> args,
+                            Map<String, String> environment) throws IOException {
+            super(executable, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // Called by quit(); the pool decides when the service ends
+        }
+
+        @Override
+        public void shutdown() {
+            super.stop();
+        }
+
+        static final class Builder extends ChromeDriverService.Builder {
+            @Override
+            protected ChromeDriverService createDriverService(File exe, int port, Duration timeout,
+                                                              List<String> args, Map<String, String> environment) {
+                try {
+                    return new SharedChromeService(exe, port, timeout, args, environment);
+                } catch (IOException e) {
+                    throw new WebDriverException(e);
+                }
+            }
+        }
+    }
+
+    private static final class SharedGeckoService extends GeckoDriverService implements Shared {
+        SharedGeckoService(File executable, int port, Duration timeout, List<String> args,
+                           Map<String, String> environment) throws IOException {
+            super(executable, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // Called by quit(); the pool decides when the service ends
+        }
+
+        @Override
+        public void shutdown() {
+            super.stop();
+        }
+
+        static final class Builder extends GeckoDriverService.Builder {
+            @Override
+            protected GeckoDriverService createDriverService(File exe, int port, Duration timeout,
+                                                             List<String> args, Map<String, String> environment) {
+                try {
+                    return new SharedGeckoService(exe, port, timeout, args, environment);
+                } catch (IOException e) {
+                    throw new WebDriverException(e);
+                }
+            }
+        }
+    }
+
+    private static final class SharedEdgeService extends EdgeDriverService implements Shared {
+        SharedEdgeService(File executable, int port, Duration timeout, List<String> args,
+                          Map<String, String> environment) throws IOException {
+            super(executable, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // Called by quit(); the pool decides when the service ends
+        }
+
+        @Override
+        public void shutdown() {
+            super.stop();
+        }
+
+        static final class Builder extends EdgeDriverService.Builder {
+            @Override
+            protected EdgeDriverService createDriverService(File exe, int port, Duration timeout,
+                                                            List<String> args, Map<String, String> environment) {
+                try {
+                    return new SharedEdgeService(exe, port, timeout, args, environment);
+                } catch (IOException e) {
+                    throw new WebDriverException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named network and CPU conditions for measuring the app on constrained
+ * clients. Applied to Chromium sessions through DevTools
+ * Network.emulateNetworkConditions and Emulation.setCPUThrottlingRate.
+ * Besides the built-in profiles, emulation.profiles.&lt;name&gt; defines custom
+ * ones as "latencyMs,downloadKbps,uploadKbps,cpuRate" (0 kbps = unthrottled).
+ */
+public class EmulationProfile {
+
+    /** Unthrottled network and CPU */
+    public static final EmulationProfile NONE = new EmulationProfile("none", 0, 0, 0, 1);
+
+    // Throughput presets as used by Chrome DevTools and Lighthouse
+    private static final Map<String, EmulationProfile> BUILT_IN = new LinkedHashMap<>();
+
+    static {
+        register(NONE);
+        register(new EmulationProfile("fast-4g", 40, 9000, 1500, 1));
+        register(new EmulationProfile("slow-4g", 150, 1600, 750, 1));
+        register(new EmulationProfile("3g", 300, 1600, 750, 1));
+        register(new EmulationProfile("slow-3g", 400, 400, 400, 1));
+        register(new EmulationProfile("cpu-4x", 0, 0, 0, 4));
+        register(new EmulationProfile("cpu-6x", 0, 0, 0, 6));
+        register(new EmulationProfile("mobile-3g", 300, 1600, 750, 4));
+    }
+
+    private final String name;
+    private final long latencyMs;
+    private final long downloadKbps;
+    private final long uploadKbps;
+    private final double cpuRate;
+
+    private EmulationProfile(String name, long latencyMs, long downloadKbps, long uploadKbps, double cpuRate) {
+        this.name = name;
+        this.latencyMs = latencyMs;
+        this.downloadKbps = downloadKbps;
+        this.uploadKbps = uploadKbps;
+        this.cpuRate = cpuRate;
+    }
+
+    private static void register(EmulationProfile profile) {
+        BUILT_IN.put(profile.name, profile);
+    }
+
+    /**
+     * Looks up a profile by name
+     * @param name Profile name (case-insensitive); null or blank means none
+     * @return The profile
+     * @throws IllegalArgumentException if no profile has that name
+     */
+    public static EmulationProfile named(String name) {
+        if (name == null || name.isBlank()) {
+            return NONE;
+        }
+        String key = name.trim().toLowerCase();
+        String custom = RunConfig.current().get("emulation.profiles." + key);
+        if (custom != null && !custom.isBlank()) {
+            String[] values = custom.split(",");
+            if (values.length != 4) {
+                throw new IllegalArgumentException("emulation.profiles." + key
+                        + " must be latencyMs,downloadKbps,uploadKbps,cpuRate: " + custom);
+            }
+            return new EmulationProfile(key, Long.parseLong(values[0].trim()), Long.parseLong(values[1].trim()),
+                    Long.parseLong(values[2].trim()), Double.parseDouble(values[3].trim()));
+        }
+        EmulationProfile profile = BUILT_IN.get(key);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown emulation profile " + name + ", expected one of "
+                    + BUILT_IN.keySet() + " or an emulation.profiles." + key + " entry");
+        }
+        return profile;
+    }
+
+    /**
+     * Applies the conditions to a session, replacing any previous profile
+     * @param driver WebDriver instance
+     * @return false if the browser cannot be throttled (not Chromium-based)
+     */
+    public boolean apply(WebDriver driver) {
+        if (!CdpSupport.isAvailable(driver)) {
+            return this == NONE;
+        }
+        Map<String, Object> network = new LinkedHashMap<>();
+        network.put("offline", false);
+        network.put("latency", latencyMs);
+        // DevTools expects bytes per second, -1 disables throttling
+        network.put("downloadThroughput", downloadKbps > 0 ? downloadKbps * 1000 / 8 : -1);
+        network.put("uploadThroughput", uploadKbps > 0 ? uploadKbps * 1000 / 8 : -1);
+        CdpSupport.execute(driver, "Network.enable", Map.of());
+        CdpSupport.execute(driver, "Network.emulateNetworkConditions", network);
+        CdpSupport.execute(driver, "Emulation.setCPUThrottlingRate", Map.of("rate", cpuRate));
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public long getDownloadKbps() {
+        return downloadKbps;
+    }
+
+    public long getUploadKbps() {
+        return uploadKbps;
+    }
+
+    public double getCpuRate() {
+        return cpuRate;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
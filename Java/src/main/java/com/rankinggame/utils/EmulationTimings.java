@@ -0,0 +1,167 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects page-load and interaction timings per emulation profile, so runs
+ * under different network and CPU conditions can be compared side by side.
+ * Page loads are read from the Navigation Timing entry after each get(),
+ * interactions are timed around click, sendKeys and submit, and page objects
+ * add their route navigations. The report goes to emulation-timings.csv.
+ */
+public class EmulationTimings {
+
+    private static final String REPORT_FILE = "target/surefire-reports/emulation-timings.csv";
+
+    private static final String NAVIGATION_TIMING_SCRIPT =
+            "var n = performance.getEntriesByType('navigation')[0];" +
+            "return n ? [n.responseStart, n.domContentLoadedEventEnd, n.loadEventEnd] : null;";
+
+    private static final Map<String, List<Double>> samples = new TreeMap<>();
+    private static final ThreadLocal<Long> interactionStart = new ThreadLocal<>();
+
+    private EmulationTimings() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether timings are collected
+     * @return true unless emulation.timings is false
+     */
+    public static boolean isEnabled() {
+        return RunConfig.current().getBoolean("emulation.timings", true);
+    }
+
+    /**
+     * Creates the listener DriverManager attaches to timed sessions
+     * @return WebDriver listener
+     */
+    public static WebDriverListener listener() {
+        return new Listener();
+    }
+
+    /**
+     * Records one timing under the current thread's emulation profile
+     * @param metric Metric name, e.g. "route /matchup"
+     * @param millis Duration in milliseconds
+     */
+    public static void record(String metric, double millis) {
+        if (!isEnabled()) {
+            return;
+        }
+        String key = DriverManager.getEmulationProfile().getName() + "," + metric;
+        synchronized (samples) {
+            samples.computeIfAbsent(key, k -> new ArrayList<>()).add(millis);
+        }
+    }
+
+    /**
+     * Writes count, mean and percentiles per profile and metric
+     */
+    public static void writeReport() {
+        Path report = Paths.get(REPORT_FILE);
+        synchronized (samples) {
+            if (samples.isEmpty()) {
+                return;
+            }
+            try {
+                Files.createDirectories(report.getParent());
+                try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report))) {
+                    writer.println("profile,metric,count,meanMs,p50Ms,p95Ms,maxMs");
+                    for (Map.Entry<String, List<Double>> entry : samples.entrySet()) {
+                        List<Double> sorted = new ArrayList<>(entry.getValue());
+                        Collections.sort(sorted);
+                        double mean = sorted.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+                        writer.println(String.format(Locale.ROOT, "%s,%d,%.1f,%.1f,%.1f,%.1f", entry.getKey(),
+                                sorted.size(), mean, percentile(sorted, 50), percentile(sorted, 95),
+                                sorted.get(sorted.size() - 1)));
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing emulation timings: " + e.getMessage());
+            }
+        }
+    }
+
+    private static double percentile(List<Double> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static final class Listener implements WebDriverListener {
+
+        @Override
+        public void beforeGet(WebDriver driver, String url) {
+            interactionStart.set(System.nanoTime());
+        }
+
+        @Override
+        public void afterGet(WebDriver driver, String url) {
+            finish("get");
+            try {
+                List<?> timing = (List<?>) ((JavascriptExecutor) driver).executeScript(NAVIGATION_TIMING_SCRIPT);
+                if (timing != null) {
+                    record("page responseStart", ((Number) timing.get(0)).doubleValue());
+                    record("page domContentLoaded", ((Number) timing.get(1)).doubleValue());
+                    record("page load", ((Number) timing.get(2)).doubleValue());
+                }
+            } catch (WebDriverException | ClassCastException e) {
+                // Navigation Timing is not available for this document
+            }
+        }
+
+        @Override
+        public void beforeClick(WebElement element) {
+            interactionStart.set(System.nanoTime());
+        }
+
+        @Override
+        public void afterClick(WebElement element) {
+            finish("click");
+        }
+
+        @Override
+        public void beforeSendKeys(WebElement element, CharSequence... keysToSend) {
+            interactionStart.set(System.nanoTime());
+        }
+
+        @Override
+        public void afterSendKeys(WebElement element, CharSequence... keysToSend) {
+            finish("sendKeys");
+        }
+
+        @Override
+        public void beforeSubmit(WebElement element) {
+            interactionStart.set(System.nanoTime());
+        }
+
+        @Override
+        public void afterSubmit(WebElement element) {
+            finish("submit");
+        }
+
+        private void finish(String metric) {
+            Long start = interactionStart.get();
+            if (start != null) {
+                interactionStart.remove();
+                record(metric, (System.nanoTime() - start) / 1_000_000.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Keeps the last flightrecorder.capacity commands of each session (name,
+ * arguments, latency, outcome) plus URL/DOM markers taken at most every
+ * flightrecorder.markerIntervalMs in a fixed-size ring buffer. Recording
+ * only stores references and timestamps; arguments are formatted when a
+ * dump is written. A failed test gets the buffer, a screenshot and the page
+ * source zipped into target/surefire-reports/flight-recorder by a
+ * background thread, so passing tests pay almost nothing.
+ */
+public class FlightRecorder {
+
+    private static final String DUMP_DIR = "target/surefire-reports/flight-recorder";
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final int DEFAULT_MARKER_INTERVAL_MS = 2000;
+    private static final int MAX_ARGUMENT_LENGTH = 200;
+
+    private static final String MARKER_SCRIPT =
+            "return [location.href, document.readyState, document.getElementsByTagName('*').length];";
+
+    private static final Map<WebDriver, Recording> recordings = Collections.synchronizedMap(new WeakHashMap<>());
+    private static ExecutorService writer;
+
+    private FlightRecorder() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether sessions are recorded
+     * @return true unless flightrecorder.enabled is false
+     */
+    public static boolean isEnabled() {
+        return RunConfig.current().getBoolean("flightrecorder.enabled", true);
+    }
+
+    /**
+     * Starts recording a session
+     * @param session Undecorated driver session; markers are taken through it so they are not recorded themselves
+     * @return Listener that feeds the recording
+     */
+    public static WebDriverListener record(WebDriver session) {
+        RunConfig config = RunConfig.current();
+        Recording recording = new Recording(session, config.getInt("flightrecorder.capacity", DEFAULT_CAPACITY),
+                config.getInt("flightrecorder.markerIntervalMs", DEFAULT_MARKER_INTERVAL_MS));
+        recordings.put(session, recording);
+        return recording;
+    }
+
+    /**
+     * Stops recording a session that is being quit
+     * @param session Driver session, or a decorator around it
+     */
+    public static void forget(WebDriver session) {
+        Recording recording = forDriver(session);
+        if (recording != null) {
+            recordings.remove(recording.session);
+        }
+    }
+
+    /**
+     * Finds the recording of a session, looking through decorators and proxies
+     * @param driver WebDriver instance as handed to tests
+     * @return The recording, or null if the session is not recorded
+     */
+    public static Recording forDriver(WebDriver driver) {
+        WebDriver recorded = CdpSupport.findInWrapChain(driver, recordings::containsKey);
+        return recorded == null ? null : recordings.get(recorded);
+    }
+
+    /**
+     * Waits for dumps still being written, e.g. before the JVM exits
+     * @param timeoutSeconds Maximum time to wait
+     */
+    public static void awaitWrites(long timeoutSeconds) {
+        ExecutorService pending;
+        synchronized (FlightRecorder.class) {
+            pending = writer;
+            writer = null;
+        }
+        if (pending == null) {
+            return;
+        }
+        pending.shutdown();
+        try {
+            pending.awaitTermination(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static synchronized ExecutorService writer() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "flight-recorder-writer");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        return writer;
+    }
+
+    /**
+     * Ring buffer of one session's recent commands and markers
+     */
+    public static final class Recording implements WebDriverListener {
+        private final WebDriver session;
+        private final AtomicReferenceArray<Event> slots;
+        private final AtomicLong sequence = new AtomicLong();
+        private final long markerIntervalNanos;
+        // Only touched by the thread driving the session
+        private final Deque<Long> starts = new ArrayDeque<>();
+        private long lastMarker;
+
+        Recording(WebDriver session, int capacity, long markerIntervalMs) {
+            this.session = session;
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.markerIntervalNanos = TimeUnit.MILLISECONDS.toNanos(markerIntervalMs);
+        }
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            starts.push(System.nanoTime());
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            finish(target, method, args, null);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            finish(target, method, args, e.getTargetException());
+        }
+
+        private void finish(Object target, Method method, Object[] args, Throwable error) {
+            long end = System.nanoTime();
+            long start = starts.isEmpty() ? end : starts.pop();
+            add(Kind.COMMAND, target.getClass().getSimpleName() + "." + method.getName(), args, end - start, error);
+            String name = method.getName();
+            if (name.equals("get") || name.equals("to")) {
+                // The navigation target is known without asking the browser
+                add(Kind.MARKER, "navigate", args, 0, null);
+            } else if (starts.isEmpty() && error == null && end - lastMarker > markerIntervalNanos
+                    && !name.equals("quit") && !name.equals("close")) {
+                lastMarker = end;
+                marker();
+            }
+        }
+
+        private void marker() {
+            try {
+                Object state = ((JavascriptExecutor) session).executeScript(MARKER_SCRIPT);
+                add(Kind.MARKER, "page", new Object[]{state}, 0, null);
+            } catch (WebDriverException | ClassCastException e) {
+                // No page to describe right now (alert open, navigation in progress)
+            }
+        }
+
+        private void add(Kind kind, String name, Object[] args, long latencyNanos, Throwable error) {
+            long seq = sequence.getAndIncrement();
+            slots.set((int) (seq % slots.length()),
+                    new Event(seq, kind, System.currentTimeMillis(), name, args, latencyNanos, error));
+        }
+
+        /**
+         * @return Snapshot of the buffered events, oldest first
+         */
+        public List<Event> events() {
+            long end = sequence.get();
+            long start = Math.max(0, end - slots.length());
+            List<Event> events = new ArrayList<>((int) (end - start));
+            for (long seq = start; seq < end; seq++) {
+                Event event = slots.get((int) (seq % slots.length()));
+                if (event != null && event.sequence == seq) {
+                    events.add(event);
+                }
+            }
+            return events;
+        }
+
+        /**
+         * Captures a screenshot and the page source, then writes them with
+         * the buffered events as a zip file on the background writer thread
+         * @param name Artifact name, e.g. the failed test
+         * @param failure Test failure, or null
+         * @return Path the dump is being written to
+         */
+        public Path dump(String name, Throwable failure) {
+            List<Event> events = events();
+            byte[] screenshot = null;
+            String source = null;
+            try {
+                if (session instanceof TakesScreenshot) {
+                    screenshot = ((TakesScreenshot) session).getScreenshotAs(OutputType.BYTES);
+                }
+                source = session.getPageSource();
+            } catch (WebDriverException e) {
+                // Session is gone; the command history is still worth keeping
+            }
+            Path file = Paths.get(DUMP_DIR, name.replaceAll("[^A-Za-z0-9._-]", "_") + "-"
+                    + Instant.now().toString().replace(':', '-') + ".zip");
+            byte[] png = screenshot;
+            String dom = source;
+            writer().execute(() -> write(file, events, failure, png, dom));
+            return file;
+        }
+
+        private static void write(Path file, List<Event> events, Throwable failure, byte[] png, String dom) {
+            try {
+                Files.createDirectories(file.getParent());
+                try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+                    StringBuilder text = new StringBuilder();
+                    events.forEach(event -> text.append(event).append('\n'));
+                    if (failure != null) {
+                        StringWriter trace = new StringWriter();
+                        failure.printStackTrace(new PrintWriter(trace));
+                        text.append("\nFailure:\n").append(trace);
+                    }
+                    entry(zip, "commands.txt", text.toString().getBytes(StandardCharsets.UTF_8));
+                    if (dom != null) {
+                        entry(zip, "dom.html", dom.getBytes(StandardCharsets.UTF_8));
+                    }
+                    if (png != null) {
+                        // Already compressed
+                        zip.setLevel(0);
+                        entry(zip, "screenshot.png", png);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing flight recorder dump: " + e.getMessage());
+            }
+        }
+
+        private static void entry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+            zip.putNextEntry(new ZipEntry(name));
+            zip.write(content);
+            zip.closeEntry();
+        }
+    }
+
+    /**
+     * Kind of recorded event
+     */
+    public enum Kind {
+        COMMAND,
+        MARKER
+    }
+
+    /**
+     * One command or marker
+     */
+    public static final class Event {
+        private final long sequence;
+        private final Kind kind;
+        private final long timestampMillis;
+        private final String name;
+        private final Object[] args;
+        private final long latencyNanos;
+        private final Throwable error;
+
+        Event(long sequence, Kind kind, long timestampMillis, String name, Object[] args, long latencyNanos,
+              Throwable error) {
+            this.sequence = sequence;
+            this.kind = kind;
+            this.timestampMillis = timestampMillis;
+            this.name = name;
+            this.args = args;
+            this.latencyNanos = latencyNanos;
+            this.error = error;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public Instant getTimestamp() {
+            return Instant.ofEpochMilli(timestampMillis);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLatencyMicros() {
+            return latencyNanos / 1000;
+        }
+
+        @Override
+        public String toString() {
+            String arguments = args == null ? "" : Arrays.stream(args).map(FlightRecorder::describe)
+                    .collect(Collectors.joining(", "));
+            String line = getTimestamp() + " " + kind + " " + name + "(" + arguments + ")";
+            if (kind == Kind.COMMAND) {
+                line += String.format(Locale.ROOT, " %.1fms", latencyNanos / 1_000_000.0);
+            }
+            return error == null ? line : line + " FAILED " + error.getClass().getSimpleName() + ": "
+                    + describe(String.valueOf(error.getMessage()).lines().findFirst().orElse(""));
+        }
+    }
+
+    private static String describe(Object arg) {
+        String text;
+        if (arg instanceof CharSequence[]) {
+            text = String.join("", (CharSequence[]) arg);
+        } else if (arg instanceof Object[]) {
+            text = Arrays.deepToString((Object[]) arg);
+        } else {
+            text = String.valueOf(arg);
+        }
+        return text.length() > MAX_ARGUMENT_LENGTH ? text.substring(0, MAX_ARGUMENT_LENGTH) + "..." : text;
+    }
+}
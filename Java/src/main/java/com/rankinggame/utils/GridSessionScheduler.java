@@ -0,0 +1,212 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out Grid session slots so that no endpoint is asked for more
+ * sessions than it can run. Endpoints come from grid.nodes
+ * (comma-separated "url|slots" entries, one per standalone CI node), or
+ * from gridUrl, in which case the capacity is read from the Grid's /status
+ * endpoint with every node capped at grid.maxSessionsPerNode.
+ */
+public class GridSessionScheduler {
+
+    private static final int DEFAULT_SLOTS_PER_NODE = 4;
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_SEC = 300;
+
+    private static GridSessionScheduler instance;
+
+    private final List<Endpoint> endpoints;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    /**
+     * A Grid endpoint together with its slot accounting
+     */
+    public static final class Endpoint {
+        private final URL url;
+        private final int slots;
+        private int inUse;
+
+        Endpoint(URL url, int slots) {
+            this.url = url;
+            this.slots = slots;
+        }
+
+        public URL getUrl() {
+            return url;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        @Override
+        public String toString() {
+            return url + " (" + inUse + "/" + slots + ")";
+        }
+    }
+
+    GridSessionScheduler(List<Endpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one Grid endpoint is required");
+        }
+        this.endpoints = Collections.unmodifiableList(endpoints);
+    }
+
+    /**
+     * Gets the scheduler configured from config.properties (or system property overrides)
+     * @return Shared scheduler instance
+     */
+    public static synchronized GridSessionScheduler getInstance() {
+        if (instance == null) {
+            instance = new GridSessionScheduler(configuredEndpoints());
+        }
+        return instance;
+    }
+
+    /**
+     * Drops the shared instance so the next call re-reads the configuration
+     */
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    /**
+     * Reserves a slot on the endpoint with the most free capacity, waiting
+     * for a session to be released when every endpoint is full
+     * @return Endpoint the new session must be created on
+     */
+    public Endpoint acquire() {
+        long timeoutSec = RunConfig.current().getLong("grid.acquireTimeoutSec", DEFAULT_ACQUIRE_TIMEOUT_SEC);
+        long remaining = TimeUnit.SECONDS.toNanos(timeoutSec);
+        lock.lock();
+        try {
+            while (true) {
+                Endpoint best = null;
+                for (Endpoint endpoint : endpoints) {
+                    int free = endpoint.slots - endpoint.inUse;
+                    if (free > 0 && (best == null || free > best.slots - best.inUse)) {
+                        best = endpoint;
+                    }
+                }
+                if (best != null) {
+                    best.inUse++;
+                    return best;
+                }
+                if (remaining <= 0) {
+                    throw new TimeoutException("No free Grid slot after " + timeoutSec + "s: " + endpoints);
+                }
+                remaining = slotFreed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Grid slot", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a slot reserved by acquire()
+     * @param endpoint Endpoint the session ran on
+     */
+    public void release(Endpoint endpoint) {
+        lock.lock();
+        try {
+            if (endpoint.inUse > 0) {
+                endpoint.inUse--;
+            }
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the total number of sessions the configured endpoints can run at once
+     * @return Total slot count
+     */
+    public int getCapacity() {
+        return endpoints.stream().mapToInt(Endpoint::getSlots).sum();
+    }
+
+    private static List<Endpoint> configuredEndpoints() {
+        int perNode = RunConfig.current().getInt("grid.maxSessionsPerNode", DEFAULT_SLOTS_PER_NODE);
+        List<Endpoint> endpoints = new ArrayList<>();
+        String nodes = RunConfig.current().getString("grid.nodes", null);
+        if (nodes != null) {
+            for (String entry : nodes.split(",")) {
+                String[] parts = entry.trim().split("\\|");
+                int slots = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : perNode;
+                endpoints.add(new Endpoint(toUrl(parts[0].trim()), Math.min(slots, perNode)));
+            }
+            return endpoints;
+        }
+        String gridUrl = RunConfig.current().getString("gridUrl", null);
+        if (gridUrl == null) {
+            throw new IllegalStateException("browser=remote requires gridUrl or grid.nodes to be set");
+        }
+        endpoints.add(new Endpoint(toUrl(gridUrl), discoverCapacity(gridUrl, perNode)));
+        return endpoints;
+    }
+
+    /**
+     * Reads node capacity from the Grid status endpoint
+     * @param gridUrl Grid (hub or standalone) address
+     * @param perNode Upper bound on sessions per node
+     * @return Total usable slots, or perNode when the status cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    private static int discoverCapacity(String gridUrl, int perNode) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) toUrl(gridUrl.replaceAll("/+$", "") + "/status").openConnection();
+            connection.setConnectTimeout((int) Duration.ofSeconds(5).toMillis());
+            connection.setReadTimeout((int) Duration.ofSeconds(5).toMillis());
+            try (InputStream in = connection.getInputStream()) {
+                Map<String, Object> status = new Json().toType(new String(in.readAllBytes(), StandardCharsets.UTF_8), Map.class);
+                Map<String, Object> value = (Map<String, Object>) status.get("value");
+                List<Map<String, Object>> nodes = value == null ? null : (List<Map<String, Object>>) value.get("nodes");
+                if (nodes == null || nodes.isEmpty()) {
+                    return perNode;
+                }
+                int total = 0;
+                for (Map<String, Object> node : nodes) {
+                    Object maxSessions = node.get("maxSessions");
+                    int slots = maxSessions instanceof Number ? ((Number) maxSessions).intValue() : 1;
+                    total += Math.min(slots, perNode);
+                }
+                return total;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not read Grid status from " + gridUrl + ": " + e.getMessage());
+            return perNode;
+        }
+    }
+
+    private static URL toUrl(String url) {
+        try {
+            return new URL(url);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid Grid URL: " + url, e);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.rankinggame.utils;
+
+import com.rankinggame.pages.GeneratedPageBindings;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every findElement/findElements call per locator when
+ * profiler.locators=true. Each lookup is followed by an in-page probe that
+ * re-runs the query with performance.now() around it, which splits the cost
+ * into in-browser query time and protocol overhead and counts how many
+ * elements the locator matches. Locators are labelled with the page field
+ * names from the generated page bindings.
+ */
+public class LocatorProfiler {
+
+    private static final String REPORT_FILE = "target/surefire-reports/locator-profile.csv";
+    private static final double DEFAULT_SLOW_MS = 100;
+    private static final double DEFAULT_SLOW_QUERY_MS = 2;
+
+    private static final String PROBE_SCRIPT =
+            "var using = arguments[0], value = arguments[1], root = arguments[2] || document;" +
+            "var start = performance.now(), count;" +
+            "if (using === 'xpath') {" +
+            "  count = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;" +
+            "} else if (using === 'tag name') {" +
+            "  count = root.getElementsByTagName(value).length;" +
+            "} else {" +
+            "  var css = using === 'id' ? '#' + CSS.escape(value)" +
+            "      : using === 'class name' ? '.' + CSS.escape(value)" +
+            "      : using === 'name' ? '[name=' + JSON.stringify(value) + ']' : value;" +
+            "  count = root.querySelectorAll(css).length;" +
+            "}" +
+            "return [performance.now() - start, count];";
+
+    private static final Map<String, LocatorStats> stats = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new);
+    private static Map<By, String> declaredNames;
+
+    private LocatorProfiler() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether locator profiling is switched on
+     * @return true if profiler.locators is set
+     */
+    public static boolean isEnabled() {
+        return RunConfig.current().getBoolean("profiler.locators", false);
+    }
+
+    /**
+     * Creates the listener DriverManager attaches to profiled sessions
+     * @return WebDriver listener
+     */
+    public static WebDriverListener listener() {
+        return new Listener();
+    }
+
+    /**
+     * Writes the per-locator report and prints flagged locators
+     */
+    public static void writeReport() {
+        if (stats.isEmpty()) {
+            return;
+        }
+        double slowMs = RunConfig.current().getDouble("profiler.locators.slowMs", DEFAULT_SLOW_MS);
+        double slowQueryMs = RunConfig.current().getDouble("profiler.locators.slowQueryMs", DEFAULT_SLOW_QUERY_MS);
+        Path report = Paths.get(REPORT_FILE);
+        List<String> flagged = new ArrayList<>();
+        try {
+            Files.createDirectories(report.getParent());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report))) {
+                writer.println("locator,declaredAs,calls,misses,meanTotalMs,meanQueryMs,meanProtocolMs,maxTotalMs,maxMatches,flags");
+                for (LocatorStats s : stats.values()) {
+                    String flags = s.flags(slowMs, slowQueryMs);
+                    writer.println(String.format(Locale.ROOT, "\"%s\",\"%s\",%d,%d,%.2f,%.3f,%.2f,%.2f,%d,%s",
+                            s.locator.replace("\"", "\"\""), s.declaredAs, s.calls, s.misses, s.meanTotalMs(),
+                            s.meanQueryMs(), s.meanProtocolMs(), s.maxTotalMs, s.maxMatches, flags));
+                    if (!flags.isEmpty()) {
+                        flagged.add(flags + " " + s.locator + " (" + s.declaredAs + ")");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing locator profile: " + e.getMessage());
+        }
+        if (!flagged.isEmpty()) {
+            System.out.println("Locator profiler flagged " + flagged.size() + " locator(s), see " + REPORT_FILE + ":");
+            flagged.forEach(line -> System.out.println("  " + line));
+        }
+    }
+
+    private static synchronized String declaredName(By locator) {
+        if (declaredNames == null) {
+            declaredNames = new LinkedHashMap<>();
+            GeneratedPageBindings.allLocators().forEach((name, by) -> declaredNames.merge(by, name, (a, b) -> a + " " + b));
+        }
+        return declaredNames.getOrDefault(locator, "");
+    }
+
+    /**
+     * Accumulated timings for one locator and lookup kind
+     */
+    private static final class LocatorStats {
+        private final String locator;
+        private final String declaredAs;
+        private final boolean single;
+        private long calls;
+        private long misses;
+        private double totalMs;
+        private double queryMs;
+        private double protocolMs;
+        private long probes;
+        private double maxTotalMs;
+        private long maxMatches;
+
+        LocatorStats(String locator, String declaredAs, boolean single) {
+            this.locator = locator;
+            this.declaredAs = declaredAs;
+            this.single = single;
+        }
+
+        synchronized void record(double elapsedMs, boolean found, double[] probe) {
+            calls++;
+            if (!found) {
+                misses++;
+                return;
+            }
+            totalMs += elapsedMs;
+            maxTotalMs = Math.max(maxTotalMs, elapsedMs);
+            if (probe != null) {
+                probes++;
+                queryMs += probe[0];
+                // The lookup's own time minus the same query in the page is what the protocol added
+                protocolMs += Math.max(0, elapsedMs - probe[0]);
+                maxMatches = Math.max(maxMatches, (long) probe[1]);
+            }
+        }
+
+        synchronized double meanTotalMs() {
+            long hits = calls - misses;
+            return hits == 0 ? 0 : totalMs / hits;
+        }
+
+        synchronized double meanQueryMs() {
+            return probes == 0 ? 0 : queryMs / probes;
+        }
+
+        synchronized double meanProtocolMs() {
+            return probes == 0 ? 0 : protocolMs / probes;
+        }
+
+        synchronized String flags(double slowMs, double slowQueryMs) {
+            List<String> flags = new ArrayList<>();
+            if (meanTotalMs() > slowMs) {
+                flags.add("SLOW");
+            }
+            if (meanQueryMs() > slowQueryMs) {
+                flags.add("SLOW_QUERY");
+            }
+            if (single && maxMatches > 1) {
+                // findElement only uses the first match
+                flags.add("AMBIGUOUS");
+            }
+            return String.join("|", flags);
+        }
+    }
+
+    private static final class Listener implements WebDriverListener {
+
+        @Override
+        public void beforeFindElement(WebDriver driver, By locator) {
+            starts.get().push(System.nanoTime());
+        }
+
+        @Override
+        public void beforeFindElements(WebDriver driver, By locator) {
+            starts.get().push(System.nanoTime());
+        }
+
+        @Override
+        public void beforeFindElement(WebElement element, By locator) {
+            starts.get().push(System.nanoTime());
+        }
+
+        @Override
+        public void beforeFindElements(WebElement element, By locator) {
+            starts.get().push(System.nanoTime());
+        }
+
+        @Override
+        public void afterFindElement(WebDriver driver, By locator, WebElement result) {
+            finish(driver, null, locator, true, true);
+        }
+
+        @Override
+        public void afterFindElements(WebDriver driver, By locator, List<WebElement> result) {
+            finish(driver, null, locator, false, true);
+        }
+
+        @Override
+        public void afterFindElement(WebElement element, By locator, WebElement result) {
+            finish(driverOf(element), element, locator, true, true);
+        }
+
+        @Override
+        public void afterFindElements(WebElement element, By locator, List<WebElement> result) {
+            finish(driverOf(element), element, locator, false, true);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            String name = method.getName();
+            if ((name.equals("findElement") || name.equals("findElements")) && args != null
+                    && args.length == 1 && args[0] instanceof By) {
+                finish(null, null, (By) args[0], name.equals("findElement"), false);
+            }
+        }
+
+        private void finish(WebDriver driver, WebElement root, By locator, boolean single, boolean found) {
+            Deque<Long> pending = starts.get();
+            if (pending.isEmpty()) {
+                return;
+            }
+            double elapsedMs = (System.nanoTime() - pending.pop()) / 1_000_000.0;
+            double[] probe = found && driver != null ? probe(driver, root, locator) : null;
+            String key = (single ? "findElement " : "findElements ") + locator;
+            stats.computeIfAbsent(key, k -> new LocatorStats(locator.toString(), declaredName(locator), single))
+                    .record(elapsedMs, found, probe);
+        }
+
+        /**
+         * Re-runs the query in the page
+         * @return [in-browser ms, match count], or null if the locator cannot be probed
+         */
+        private double[] probe(WebDriver driver, WebElement root, By locator) {
+            if (!(locator instanceof By.Remotable) || !(driver instanceof JavascriptExecutor)) {
+                return null;
+            }
+            By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+            String using = parameters.using();
+            if (using.equals("link text") || using.equals("partial link text")) {
+                return null;
+            }
+            try {
+                List<?> result = (List<?>) ((JavascriptExecutor) driver).executeScript(
+                        PROBE_SCRIPT, using, String.valueOf(parameters.value()), root);
+                return new double[]{((Number) result.get(0)).doubleValue(), ((Number) result.get(1)).doubleValue()};
+            } catch (WebDriverException | ClassCastException e) {
+                return null;
+            }
+        }
+
+        private WebDriver driverOf(WebElement element) {
+            return element instanceof WrapsDriver ? ((WrapsDriver) element).getWrappedDriver() : null;
+        }
+    }
+}
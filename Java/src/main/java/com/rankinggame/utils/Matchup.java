@@ -0,0 +1,39 @@
+package com.rankinggame.utils;
+
+/**
+ * One pairwise matchup played on the voting page
+ */
+public class Matchup {
+    private final String left;
+    private final String right;
+    private final String winner;
+
+    /**
+     * Constructor for Matchup
+     * @param left Item shown first
+     * @param right Item shown second
+     * @param winner Item that was chosen
+     */
+    public Matchup(String left, String right, String winner) {
+        this.left = left;
+        this.right = right;
+        this.winner = winner;
+    }
+
+    public String getLeft() {
+        return left;
+    }
+
+    public String getRight() {
+        return right;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    @Override
+    public String toString() {
+        return left + " vs " + right + " -> " + winner;
+    }
+}
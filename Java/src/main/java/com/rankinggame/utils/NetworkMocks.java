@@ -0,0 +1,361 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Answers the browser's requests with canned responses, inside the session
+ * and without a proxy. Mocks are registered by URL pattern ("*" matches any
+ * run of characters, "?" a single one); only matching requests are paused,
+ * via DevTools Fetch.requestPaused, so everything else goes to the network
+ * untouched. A mock either fulfils the request itself or, for latency
+ * injection alone, passes it on after a delay. Each mock records its hits.
+ * When several mocks match, the one registered last wins. Chromium only.
+ */
+public class NetworkMocks {
+
+    private static final Map<WebDriver, NetworkMocks> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final DevTools devTools;
+    private final List<Mock> mocks = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService responder;
+    private boolean listening = false;
+
+    private NetworkMocks(DevTools devTools) {
+        this.devTools = devTools;
+        this.responder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "network-mocks");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the mocks of a session, connecting to its DevTools on first use
+     * @param driver WebDriver instance, decorated or not
+     * @return The session's mocks
+     * @throws UnsupportedOperationException if the browser has no DevTools Fetch domain
+     */
+    public static NetworkMocks forDriver(WebDriver driver) {
+        WebDriver session = CdpSupport.unwrap(driver);
+        synchronized (sessions) {
+            NetworkMocks existing = sessions.get(session);
+            if (existing != null) {
+                return existing;
+            }
+            if (!CdpSupport.isAvailable(session) || !(session instanceof HasDevTools)) {
+                throw new UnsupportedOperationException("Network mocks need a Chromium-based browser");
+            }
+            DevTools devTools = ((HasDevTools) session).getDevTools();
+            devTools.createSessionIfThereIsNotOne(session.getWindowHandle());
+            NetworkMocks created = new NetworkMocks(devTools);
+            sessions.put(session, created);
+            return created;
+        }
+    }
+
+    /**
+     * Removes the mocks of a session that is being quit
+     * @param driver Driver session, or a decorator around it
+     */
+    public static void detach(WebDriver driver) {
+        NetworkMocks mocks = sessions.remove(CdpSupport.unwrap(driver));
+        if (mocks != null) {
+            mocks.responder.shutdownNow();
+        }
+    }
+
+    /**
+     * Answers matching requests with a canned response
+     * @param urlPattern URL pattern, e.g. "*api/matchups*"
+     * @param status HTTP status code
+     * @param contentType Content-Type of the body, e.g. "application/json"
+     * @param body Response body
+     * @return The mock, for adding latency, headers or a method filter
+     */
+    public Mock respond(String urlPattern, int status, String contentType, String body) {
+        Mock mock = new Mock(urlPattern, status, body.getBytes(StandardCharsets.UTF_8));
+        mock.withHeader("Content-Type", contentType);
+        return register(mock);
+    }
+
+    /**
+     * Lets matching requests through to the network after a delay
+     * @param urlPattern URL pattern
+     * @param latency Added delay
+     * @return The mock, for checking hits
+     */
+    public Mock delay(String urlPattern, Duration latency) {
+        return register(new Mock(urlPattern, 0, null).withLatency(latency));
+    }
+
+    /**
+     * Removes one mock; its requests go to the network again
+     * @param mock Mock returned by respond() or delay()
+     */
+    public synchronized void remove(Mock mock) {
+        mocks.remove(mock);
+        enable();
+    }
+
+    /**
+     * Removes all mocks and stops intercepting
+     */
+    public synchronized void clear() {
+        mocks.clear();
+        enable();
+    }
+
+    /**
+     * @return Registered mocks, oldest first
+     */
+    public List<Mock> getMocks() {
+        return new ArrayList<>(mocks);
+    }
+
+    private synchronized Mock register(Mock mock) {
+        mocks.add(mock);
+        if (!listening) {
+            devTools.addListener(new Event<Map<String, Object>>("Fetch.requestPaused",
+                    input -> input.read(Json.MAP_TYPE)), this::onRequestPaused);
+            listening = true;
+        }
+        enable();
+        return mock;
+    }
+
+    /**
+     * Points the Fetch domain at the current patterns; enabling again
+     * replaces the previous patterns
+     */
+    private void enable() {
+        if (mocks.isEmpty()) {
+            devTools.send(new Command<Void>("Fetch.disable", Map.of()));
+            return;
+        }
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (Mock mock : mocks) {
+            patterns.add(Map.of("urlPattern", mock.urlPattern, "requestStage", "Request"));
+        }
+        devTools.send(new Command<Void>("Fetch.enable", Map.of("patterns", patterns)));
+    }
+
+    private void onRequestPaused(Map<String, Object> event) {
+        String requestId = String.valueOf(event.get("requestId"));
+        Map<?, ?> request = event.get("request") instanceof Map ? (Map<?, ?>) event.get("request") : Map.of();
+        String url = String.valueOf(request.get("url"));
+        String method = String.valueOf(request.get("method"));
+        List<Mock> registered = getMocks();
+        Mock match = null;
+        for (int i = registered.size() - 1; i >= 0 && match == null; i--) {
+            Mock mock = registered.get(i);
+            if (mock.matches(url, method)) {
+                match = mock;
+            }
+        }
+        Mock mock = match;
+        if (mock != null && !isPreflight(method, mock)) {
+            mock.hits.add(new Hit(url, method, (String) request.get("postData"), Instant.now()));
+        }
+        // Answer off the DevTools event thread; sending from it would wait on itself
+        long delayMs = mock == null ? 0 : mock.latency.toMillis();
+        responder.schedule(() -> answer(requestId, method, mock), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void answer(String requestId, String method, Mock mock) {
+        try {
+            if (mock == null || mock.body == null) {
+                devTools.send(new Command<Void>("Fetch.continueRequest", Map.of("requestId", requestId)));
+            } else if (isPreflight(method, mock)) {
+                // Lets the browser send the mocked cross-origin call
+                devTools.send(new Command<Void>("Fetch.fulfillRequest", Map.of("requestId", requestId,
+                        "responseCode", 204, "responseHeaders", headers(Map.of(
+                                "Access-Control-Allow-Origin", "*",
+                                "Access-Control-Allow-Methods", "GET, POST, PUT, PATCH, DELETE",
+                                "Access-Control-Allow-Headers", "*")))));
+            } else {
+                devTools.send(new Command<Void>("Fetch.fulfillRequest", Map.of("requestId", requestId,
+                        "responseCode", mock.status, "responseHeaders", headers(mock.getHeaders()),
+                        "body", Base64.getEncoder().encodeToString(mock.body))));
+            }
+        } catch (WebDriverException e) {
+            // The request was cancelled (e.g. the page navigated away) while it was paused
+        }
+    }
+
+    private static boolean isPreflight(String method, Mock mock) {
+        return "OPTIONS".equals(method) && !"OPTIONS".equals(mock.method);
+    }
+
+    private static List<Map<String, Object>> headers(Map<String, String> headers) {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        headers.forEach((name, value) -> entries.add(Map.of("name", name, "value", value)));
+        return entries;
+    }
+
+    /**
+     * One registered mock
+     */
+    public static final class Mock {
+        private final String urlPattern;
+        private final Pattern regex;
+        private final int status;
+        private final byte[] body;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private final List<Hit> hits = new CopyOnWriteArrayList<>();
+        private volatile Duration latency = Duration.ZERO;
+        private volatile String method;
+
+        Mock(String urlPattern, int status, byte[] body) {
+            this.urlPattern = urlPattern;
+            this.regex = toRegex(urlPattern);
+            this.status = status;
+            this.body = body;
+            // Mocked APIs are usually on another origin than the page
+            headers.put("Access-Control-Allow-Origin", "*");
+        }
+
+        /**
+         * Delays the response
+         * @param latency Time between the request and its response
+         * @return This mock
+         */
+        public Mock withLatency(Duration latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Adds or replaces a response header
+         * @param name Header name
+         * @param value Header value
+         * @return This mock
+         */
+        public synchronized Mock withHeader(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        /**
+         * Restricts the mock to one HTTP method
+         * @param method e.g. "GET" or "POST"
+         * @return This mock
+         */
+        public Mock forMethod(String method) {
+            this.method = method.toUpperCase();
+            return this;
+        }
+
+        synchronized Map<String, String> getHeaders() {
+            return new LinkedHashMap<>(headers);
+        }
+
+        boolean matches(String url, String requestMethod) {
+            return regex.matcher(url).matches()
+                    && (method == null || method.equals(requestMethod) || "OPTIONS".equals(requestMethod));
+        }
+
+        public String getUrlPattern() {
+            return urlPattern;
+        }
+
+        /**
+         * @return Requests answered by this mock, oldest first
+         */
+        public List<Hit> getHits() {
+            return new ArrayList<>(hits);
+        }
+
+        public int getHitCount() {
+            return hits.size();
+        }
+
+        public boolean isHit() {
+            return !hits.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return (method == null ? "" : method + " ") + urlPattern + " (" + hits.size() + " hits)";
+        }
+
+        private static Pattern toRegex(String glob) {
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < glob.length(); i++) {
+                char c = glob.charAt(i);
+                if (c == '\\' && i + 1 < glob.length()) {
+                    regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                } else if (c == '*') {
+                    regex.append(".*");
+                } else if (c == '?') {
+                    regex.append('.');
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            return Pattern.compile(regex.toString(), Pattern.DOTALL);
+        }
+    }
+
+    /**
+     * A request answered by a mock
+     */
+    public static final class Hit {
+        private final String url;
+        private final String method;
+        private final String postData;
+        private final Instant timestamp;
+
+        Hit(String url, String method, String postData, Instant timestamp) {
+            this.url = url;
+            this.method = method;
+            this.postData = postData;
+            this.timestamp = timestamp;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * @return Request body, or null if the request had none
+         */
+        public String getPostData() {
+            return postData;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public String toString() {
+            return timestamp + " " + method + " " + url;
+        }
+    }
+}
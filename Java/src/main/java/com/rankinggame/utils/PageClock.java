@@ -0,0 +1,218 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Virtual clock for the page under test. Installing it replaces setTimeout,
+ * setInterval, requestAnimationFrame, Date and performance.now with fakes
+ * that only move when the test advances them, so timer-gated UI states
+ * (marquee prompt, slide-ins, delayed transitions) are reached at once
+ * instead of in wall-clock time. Advancing fires every due timer in order
+ * and lets promise callbacks run between them, so chained delays complete
+ * within one advance. On Chromium the clock is also registered for new
+ * documents, so it is in place before the app's own scripts run after a
+ * reload; other browsers only get it in the current document.
+ */
+public class PageClock {
+
+    private static final int MAX_TIMERS_PER_ADVANCE = 100_000;
+
+    private static final String INSTALL_SCRIPT =
+            "(function() {" +
+            "  if (window.__rgClock) { return; }" +
+            "  var real = { setTimeout: window.setTimeout, clearTimeout: window.clearTimeout," +
+            "    setInterval: window.setInterval, clearInterval: window.clearInterval," +
+            "    requestAnimationFrame: window.requestAnimationFrame, cancelAnimationFrame: window.cancelAnimationFrame," +
+            "    Date: window.Date, performanceNow: performance.now };" +
+            "  var startWall = real.Date.now(), startPerf = real.performanceNow.call(performance);" +
+            "  var clock = window.__rgClock = { elapsed: 0, timers: {}, nextId: 1 };" +
+            "  var add = function(callback, delay, args, repeat, frame) {" +
+            "    var id = clock.nextId++;" +
+            "    delay = Math.max(0, Number(delay) || 0);" +
+            "    clock.timers[id] = { id: id, at: clock.elapsed + delay, callback: callback, args: args," +
+            "      interval: repeat ? Math.max(delay, 1) : 0, frame: frame };" +
+            "    return id;" +
+            "  };" +
+            "  var remove = function(id) { delete clock.timers[id]; };" +
+            "  window.setTimeout = function(callback, delay) {" +
+            "    return add(callback, delay, [].slice.call(arguments, 2), false, false);" +
+            "  };" +
+            "  window.setInterval = function(callback, delay) {" +
+            "    return add(callback, delay, [].slice.call(arguments, 2), true, false);" +
+            "  };" +
+            "  window.clearTimeout = window.clearInterval = window.cancelAnimationFrame = remove;" +
+            "  window.requestAnimationFrame = function(callback) {" +
+            "    return add(callback, 16 - clock.elapsed % 16, [], false, true);" +
+            "  };" +
+            "  var FakeDate = function(y, m, d, h, min, s, ms) {" +
+            "    if (!(this instanceof FakeDate)) { return new real.Date(startWall + clock.elapsed).toString(); }" +
+            "    switch (arguments.length) {" +
+            "      case 0: return new real.Date(startWall + clock.elapsed);" +
+            "      case 1: return new real.Date(y);" +
+            "      default: return new real.Date(y, m, d === undefined ? 1 : d, h || 0, min || 0, s || 0, ms || 0);" +
+            "    }" +
+            "  };" +
+            "  FakeDate.prototype = real.Date.prototype;" +
+            "  FakeDate.now = function() { return startWall + clock.elapsed; };" +
+            "  FakeDate.parse = real.Date.parse;" +
+            "  FakeDate.UTC = real.Date.UTC;" +
+            "  window.Date = FakeDate;" +
+            "  performance.now = function() { return startPerf + clock.elapsed; };" +
+            "  var run = function(timer) {" +
+            "    try {" +
+            "      if (typeof timer.callback === 'function') {" +
+            "        timer.callback.apply(window, timer.frame ? [performance.now()] : timer.args);" +
+            "      } else {" +
+            "        (0, eval)(String(timer.callback));" +
+            "      }" +
+            "    } catch (e) {" +
+            // Rethrown outside the loop so it still surfaces as an uncaught page error
+            "      real.setTimeout.call(window, function() { throw e; }, 0);" +
+            "    }" +
+            "  };" +
+            "  var next = function(limit) {" +
+            "    var found = null;" +
+            "    for (var id in clock.timers) {" +
+            "      var t = clock.timers[id];" +
+            "      if (t.at <= limit && (!found || t.at < found.at || t.at === found.at && t.id < found.id)) { found = t; }" +
+            "    }" +
+            "    return found;" +
+            "  };" +
+            // A message task runs after all pending promise callbacks, unlike a resolved promise
+            "  var yieldToPage = function() {" +
+            "    return new Promise(function(resolve) {" +
+            "      var channel = new MessageChannel();" +
+            "      channel.port1.onmessage = function() { resolve(); };" +
+            "      channel.port2.postMessage(null);" +
+            "    });" +
+            "  };" +
+            "  clock.advance = function(ms, maxTimers) {" +
+            "    var target = clock.elapsed + Math.max(0, ms), fired = 0;" +
+            "    var step = function() {" +
+            "      return yieldToPage().then(function() {" +
+            "        var timer = next(target);" +
+            "        if (!timer) { clock.elapsed = target; return fired; }" +
+            "        if (++fired > maxTimers) { throw new Error('more than ' + maxTimers + ' timers fired'); }" +
+            "        clock.elapsed = timer.at;" +
+            "        if (timer.interval) { timer.at += timer.interval; } else { delete clock.timers[timer.id]; }" +
+            "        run(timer);" +
+            "        return step();" +
+            "      });" +
+            "    };" +
+            "    return step();" +
+            "  };" +
+            "  clock.uninstall = function() {" +
+            "    window.setTimeout = real.setTimeout;" +
+            "    window.clearTimeout = real.clearTimeout;" +
+            "    window.setInterval = real.setInterval;" +
+            "    window.clearInterval = real.clearInterval;" +
+            "    window.requestAnimationFrame = real.requestAnimationFrame;" +
+            "    window.cancelAnimationFrame = real.cancelAnimationFrame;" +
+            "    window.Date = real.Date;" +
+            "    performance.now = real.performanceNow;" +
+            "    var pending = clock.timers;" +
+            "    delete window.__rgClock;" +
+            "    Object.keys(pending).forEach(function(id) {" +
+            "      var t = pending[id], remaining = Math.max(0, t.at - clock.elapsed);" +
+            "      real.setTimeout.call(window, function() {" +
+            "        if (t.frame) { real.requestAnimationFrame.call(window, t.callback); return; }" +
+            "        run(t);" +
+            "        if (t.interval) { real.setInterval.call(window, function() { run(t); }, t.interval); }" +
+            "      }, remaining);" +
+            "    });" +
+            "  };" +
+            "})();";
+
+    private static final String IS_INSTALLED_SCRIPT = "return !!window.__rgClock;";
+
+    private static final String ADVANCE_SCRIPT =
+            "var done = arguments[arguments.length - 1];" +
+            "if (!window.__rgClock) { done(null); return; }" +
+            "window.__rgClock.advance(arguments[0], arguments[1])" +
+            "  .then(done, function(e) { done('Advancing the page clock failed: ' + e.message); });";
+
+    private static final String UNINSTALL_SCRIPT = "if (window.__rgClock) { window.__rgClock.uninstall(); }";
+
+    // CDP identifiers of the new-document scripts, by session
+    private static final Map<WebDriver, String> newDocumentScripts = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private PageClock() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Freezes the page's timers at the current time. Does nothing if the
+     * clock is already installed.
+     * @param driver WebDriver instance
+     * @return true if documents loaded later get the clock too (Chromium),
+     *         false if only the current document has it
+     */
+    public static boolean install(WebDriver driver) {
+        WebDriver session = CdpSupport.unwrap(driver);
+        boolean survivesNavigation = false;
+        if (CdpSupport.isAvailable(driver)) {
+            if (!newDocumentScripts.containsKey(session)) {
+                Map<String, Object> result = CdpSupport.execute(driver, "Page.addScriptToEvaluateOnNewDocument",
+                        Map.of("source", INSTALL_SCRIPT));
+                newDocumentScripts.put(session, String.valueOf(result.get("identifier")));
+            }
+            survivesNavigation = true;
+        }
+        ((JavascriptExecutor) driver).executeScript(INSTALL_SCRIPT);
+        return survivesNavigation;
+    }
+
+    /**
+     * Checks whether the current document runs on the virtual clock
+     * @param driver WebDriver instance
+     * @return true if page timers are frozen
+     */
+    public static boolean isInstalled(WebDriver driver) {
+        try {
+            return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(IS_INSTALLED_SCRIPT));
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Moves the page's clock forward, firing every timer and animation frame
+     * that falls due, in order
+     * @param driver WebDriver instance
+     * @param duration Virtual time to advance
+     * @return Number of callbacks fired
+     * @throws IllegalStateException if the clock is not installed in the current document
+     */
+    public static int advance(WebDriver driver, Duration duration) {
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(ADVANCE_SCRIPT, duration.toMillis(),
+                MAX_TIMERS_PER_ADVANCE);
+        if (result == null) {
+            throw new IllegalStateException("The page clock is not installed in the current document; "
+                    + "install it again after a page load on browsers without DevTools");
+        }
+        if (!(result instanceof Number)) {
+            throw new IllegalStateException(String.valueOf(result));
+        }
+        return ((Number) result).intValue();
+    }
+
+    /**
+     * Restores the real timers; pending virtual timers are rescheduled with
+     * their remaining delay in real time
+     * @param driver WebDriver instance
+     */
+    public static void uninstall(WebDriver driver) {
+        String identifier = newDocumentScripts.remove(CdpSupport.unwrap(driver));
+        if (identifier != null) {
+            CdpSupport.execute(driver, "Page.removeScriptToEvaluateOnNewDocument", Map.of("identifier", identifier));
+        }
+        ((JavascriptExecutor) driver).executeScript(UNINSTALL_SCRIPT);
+    }
+}
@@ -0,0 +1,151 @@
+package com.rankinggame.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+
+/**
+ * Computes the ranking the Ranking Game should produce. Each pair of items
+ * meets at most once, so the app presents up to n * (n - 1) / 2 matchups,
+ * and items are ranked by matchups won, with ties kept in the order the
+ * items were entered.
+ */
+public class RankingOracle {
+
+    private RankingOracle() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Number of matchups in a tournament where every pair meets
+     * @param items Number of items
+     * @return Number of pairwise matchups, the most the app presents
+     */
+    public static int matchupCount(int items) {
+        return items * (items - 1) / 2;
+    }
+
+    /**
+     * Picks the item that comes first in a preference order
+     * @param preferenceOrder Items from most to least preferred
+     * @param a First item
+     * @param b Second item
+     * @return The preferred item
+     */
+    public static String preferred(List<String> preferenceOrder, String a, String b) {
+        int rankA = preferenceOrder.indexOf(a);
+        int rankB = preferenceOrder.indexOf(b);
+        if (rankA < 0 || rankB < 0) {
+            throw new IllegalArgumentException("Matchup " + a + " vs " + b + " is not covered by " + preferenceOrder);
+        }
+        return rankA <= rankB ? a : b;
+    }
+
+    /**
+     * Expected ranking when every matchup is decided by a preference order
+     * @param items Items in entry order
+     * @param preferenceOrder Items from most to least preferred
+     * @return Items from first to last place
+     */
+    public static List<String> expectedRanking(List<String> items, List<String> preferenceOrder) {
+        return expectedRanking(items, (a, b) -> preferred(preferenceOrder, a, b));
+    }
+
+    /**
+     * Expected ranking for an arbitrary, possibly intransitive, chooser
+     * @param items Items in entry order
+     * @param chooser Returns the winner of a matchup
+     * @return Items from first to last place
+     */
+    public static List<String> expectedRanking(List<String> items, BinaryOperator<String> chooser) {
+        List<Matchup> matchups = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            for (int j = i + 1; j < items.size(); j++) {
+                matchups.add(new Matchup(items.get(i), items.get(j), chooser.apply(items.get(i), items.get(j))));
+            }
+        }
+        return rank(items, matchups);
+    }
+
+    /**
+     * Ranking implied by the matchups that were actually played
+     * @param items Items in entry order
+     * @param played Matchups with their winners
+     * @return Items from first to last place
+     */
+    public static List<String> rank(List<String> items, List<Matchup> played) {
+        Map<String, Integer> wins = new HashMap<>();
+        items.forEach(item -> wins.put(item, 0));
+        for (Matchup matchup : played) {
+            wins.merge(matchup.getWinner(), 1, Integer::sum);
+        }
+        List<String> ranking = new ArrayList<>(items);
+        // List.sort is stable, so ties keep entry order
+        ranking.sort(Comparator.comparing(wins::get, Comparator.reverseOrder()));
+        return ranking;
+    }
+
+    /**
+     * Checks that a played tournament met no pair more than once and stayed
+     * within n * (n - 1) / 2 matchups
+     * @param items Items in entry order
+     * @param played Matchups with their winners
+     * @return Problems found, empty if the pairings are valid
+     */
+    public static List<String> verifyPairings(List<String> items, List<Matchup> played) {
+        List<String> problems = new ArrayList<>();
+        Set<String> seen = new LinkedHashSet<>();
+        for (Matchup matchup : played) {
+            if (!items.contains(matchup.getLeft()) || !items.contains(matchup.getRight())) {
+                problems.add("Unknown item in " + matchup);
+            }
+            if (!matchup.getWinner().equals(matchup.getLeft()) && !matchup.getWinner().equals(matchup.getRight())) {
+                problems.add("Winner is not part of " + matchup);
+            }
+            if (!seen.add(pairKey(matchup.getLeft(), matchup.getRight()))) {
+                problems.add("Repeated matchup " + matchup);
+            }
+        }
+        if (played.isEmpty() && items.size() > 1) {
+            problems.add("No matchups played");
+        }
+        if (played.size() > matchupCount(items.size())) {
+            problems.add("Expected at most " + matchupCount(items.size()) + " matchups but played " + played.size());
+        }
+        return problems;
+    }
+
+    /**
+     * Preference orders for data-driven tournaments: the entry order, its
+     * reverse, then seeded shuffles
+     * @param items Items in entry order
+     * @param count Number of orders to return
+     * @param seed Shuffle seed, so failures can be replayed
+     * @return Preference orders
+     */
+    public static List<List<String>> preferenceOrders(List<String> items, int count, long seed) {
+        List<List<String>> orders = new ArrayList<>();
+        Random random = new Random(seed);
+        for (int i = 0; i < count; i++) {
+            List<String> order = new ArrayList<>(items);
+            if (i == 1) {
+                Collections.reverse(order);
+            } else if (i > 1) {
+                Collections.shuffle(order, random);
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static String pairKey(String a, String b) {
+        return a.compareTo(b) <= 0 ? a + "\u0000" + b : b + "\u0000" + a;
+    }
+}
@@ -0,0 +1,294 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * HTML summary of a {@link ResultStream}, updated incrementally: each
+ * update() reads only the lines appended since the last one and folds them
+ * into running totals, so memory stays bounded however long the run is.
+ * Only counters, the results.report.slowest slowest tests and the last
+ * results.report.failures failures are kept. While a run is in progress
+ * the page reloads itself, which makes it the live progress view.
+ *
+ * Also runs standalone on an existing stream:
+ * java com.rankinggame.utils.ResultReport target/surefire-reports/results.jsonl
+ */
+public class ResultReport {
+
+    private static final int DEFAULT_SLOWEST = 10;
+    private static final int DEFAULT_FAILURES = 50;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final Json JSON = new Json();
+
+    private final Path source;
+    private final Path target;
+    private final int slowestLimit;
+    private final int failureLimit;
+    private final long reloadSec;
+
+    private long offset = 0;
+    private int openRuns = 0;
+    private long planned = 0;
+    private long passed = 0;
+    private long failed = 0;
+    private long skipped = 0;
+    private long totalDurationMs = 0;
+    private long firstEventTime = 0;
+    private long lastEventTime = 0;
+    private final Map<String, long[]> byBrowser = new TreeMap<>();
+    private final PriorityQueue<TestResult> slowest = new PriorityQueue<>(
+            Comparator.comparingLong(result -> result.durationMs));
+    private final Deque<TestResult> failures = new ArrayDeque<>();
+
+    /**
+     * Result of one test, as kept for the report tables
+     */
+    private static final class TestResult {
+        private final String name;
+        private final String browser;
+        private final String error;
+        private final long durationMs;
+
+        TestResult(String name, String browser, String error, long durationMs) {
+            this.name = name;
+            this.browser = browser;
+            this.error = error;
+            this.durationMs = durationMs;
+        }
+    }
+
+    /**
+     * Creates a report next to the stream, e.g. results.jsonl gives results.html
+     * @param source JSON Lines stream to read
+     */
+    public ResultReport(Path source) {
+        this.source = source;
+        String name = source.getFileName().toString().replaceFirst("\\.jsonl?$", "");
+        this.target = source.resolveSibling(name + ".html");
+        this.slowestLimit = RunConfig.current().getInt("results.report.slowest", DEFAULT_SLOWEST);
+        this.failureLimit = RunConfig.current().getInt("results.report.failures", DEFAULT_FAILURES);
+        // The page reloads as often as ResultStream rewrites it, in whole seconds
+        this.reloadSec = Math.max(1, (ResultStream.refreshMs() + 999) / 1000);
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    /**
+     * Reads the events appended since the last update and rewrites the page
+     * @throws IOException if the stream cannot be read or the page written
+     */
+    public synchronized void update() throws IOException {
+        if (Files.exists(source)) {
+            readNewLines();
+        }
+        write();
+    }
+
+    private void readNewLines() throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            if (channel.size() < offset) {
+                // The stream was restarted by a new run
+                reset();
+            }
+            channel.position(offset);
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = offset;
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    position++;
+                    if (b == '\n') {
+                        accept(line.toString(StandardCharsets.UTF_8));
+                        line.reset();
+                        // A line without its newline is still being written; it is read next time
+                        offset = position;
+                    } else {
+                        line.write(b);
+                    }
+                }
+                buffer.clear();
+            }
+        }
+    }
+
+    private void accept(String line) {
+        if (line.isBlank()) {
+            return;
+        }
+        Map<String, Object> event;
+        try {
+            event = JSON.toType(line, Json.MAP_TYPE);
+        } catch (JsonException e) {
+            return;
+        }
+        long time = number(event.get("time"));
+        if (firstEventTime == 0) {
+            firstEventTime = time;
+        }
+        lastEventTime = Math.max(lastEventTime, time);
+        switch (String.valueOf(event.get("type"))) {
+            case "run-start":
+                openRuns++;
+                planned += number(event.get("planned"));
+                break;
+            case "run-end":
+                openRuns = Math.max(0, openRuns - 1);
+                break;
+            case "test":
+                addTest(event);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void addTest(Map<String, Object> event) {
+        String status = String.valueOf(event.get("status"));
+        String browser = event.get("browser") == null ? "-" : String.valueOf(event.get("browser"));
+        long duration = number(event.get("durationMs"));
+        long[] counts = byBrowser.computeIfAbsent(browser, b -> new long[3]);
+        switch (status) {
+            case "PASS":
+                passed++;
+                counts[0]++;
+                break;
+            case "FAIL":
+                failed++;
+                counts[1]++;
+                break;
+            default:
+                skipped++;
+                counts[2]++;
+                break;
+        }
+        totalDurationMs += duration;
+        String error = event.get("error") == null ? "" : String.valueOf(event.get("error"));
+        TestResult result = new TestResult(String.valueOf(event.get("name")), browser, error, duration);
+        slowest.add(result);
+        if (slowest.size() > slowestLimit) {
+            slowest.poll();
+        }
+        if ("FAIL".equals(status)) {
+            failures.addLast(result);
+            if (failures.size() > failureLimit) {
+                failures.removeFirst();
+            }
+        }
+    }
+
+    private void reset() {
+        offset = 0;
+        openRuns = 0;
+        planned = passed = failed = skipped = totalDurationMs = firstEventTime = lastEventTime = 0;
+        byBrowser.clear();
+        slowest.clear();
+        failures.clear();
+    }
+
+    private void write() throws IOException {
+        long done = passed + failed + skipped;
+        long expected = Math.max(planned, done);
+        boolean running = openRuns > 0;
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(temp))) {
+            out.println("<!DOCTYPE html><html><head><meta charset=\"utf-8\">");
+            if (running) {
+                out.printf(Locale.ROOT, "<meta http-equiv=\"refresh\" content=\"%d\">%n", reloadSec);
+            }
+            out.println("<title>Test results</title><style>body{font-family:sans-serif;margin:2em}"
+                    + "table{border-collapse:collapse}td,th{border:1px solid #ccc;padding:4px 8px;text-align:left}"
+                    + ".bar{width:400px;height:16px;background:#eee;display:flex}.pass{background:#4caf50}"
+                    + ".fail{background:#e53935}.skip{background:#fbc02d}</style></head><body>");
+            out.printf(Locale.ROOT, "<h1>Test results %s</h1>%n", running ? "(running)" : "");
+            out.printf(Locale.ROOT, "<p>%d of %d done: %d passed, %d failed, %d skipped. "
+                            + "Elapsed %ds, test time %ds. Updated %s.</p>%n",
+                    done, expected, passed, failed, skipped, (lastEventTime - firstEventTime) / 1000,
+                    totalDurationMs / 1000, Instant.now());
+            out.println("<div class=\"bar\">");
+            bar(out, "pass", passed, expected);
+            bar(out, "fail", failed, expected);
+            bar(out, "skip", skipped, expected);
+            out.println("</div>");
+
+            out.println("<h2>By browser</h2><table><tr><th>Browser</th><th>Passed</th><th>Failed</th>"
+                    + "<th>Skipped</th></tr>");
+            byBrowser.forEach((browser, counts) -> out.printf(Locale.ROOT,
+                    "<tr><td>%s</td><td>%d</td><td>%d</td><td>%d</td></tr>%n",
+                    escape(browser), counts[0], counts[1], counts[2]));
+            out.println("</table>");
+
+            out.println("<h2>Failures</h2><table><tr><th>Test</th><th>Browser</th><th>Error</th></tr>");
+            List<TestResult> recentFirst = new ArrayList<>(failures);
+            for (int i = recentFirst.size() - 1; i >= 0; i--) {
+                TestResult result = recentFirst.get(i);
+                out.printf(Locale.ROOT, "<tr><td>%s</td><td>%s</td><td>%s</td></tr>%n",
+                        escape(result.name), escape(result.browser), escape(result.error));
+            }
+            out.println("</table>");
+
+            out.println("<h2>Slowest tests</h2><table><tr><th>Test</th><th>Browser</th><th>Duration</th></tr>");
+            List<TestResult> slowestFirst = new ArrayList<>(slowest);
+            slowestFirst.sort(Comparator.comparingLong((TestResult result) -> result.durationMs).reversed());
+            for (TestResult result : slowestFirst) {
+                out.printf(Locale.ROOT, "<tr><td>%s</td><td>%s</td><td>%.1fs</td></tr>%n",
+                        escape(result.name), escape(result.browser), result.durationMs / 1000.0);
+            }
+            out.println("</table></body></html>");
+        }
+        // The browser never sees a half-written page
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void bar(PrintWriter out, String cssClass, long count, long total) {
+        double percent = total == 0 ? 0 : 100.0 * count / total;
+        out.printf(Locale.ROOT, "<div class=\"%s\" style=\"width:%.2f%%\"></div>%n", cssClass, percent);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    /**
+     * Builds the report from a finished or running stream
+     * @param args Path of the stream, defaults to the configured results.stream.file
+     * @throws IOException if the stream cannot be read or the page written
+     */
+    public static void main(String[] args) throws IOException {
+        Path source = args.length > 0 ? Paths.get(args[0]) : ResultStream.configuredFile();
+        ResultReport report = new ResultReport(source);
+        report.update();
+        System.out.println(report.getTarget().toAbsolutePath());
+    }
+}
@@ -0,0 +1,200 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only JSON Lines log of test results, written as each test
+ * finishes rather than at the end of the run. TestNG and Cucumber both
+ * write to the same stream (results.stream.file). Each line is flushed on
+ * its own, so the file can be followed with tail -f. When results.live is
+ * on, a {@link ResultReport} is brought up to date from the stream every
+ * results.live.refreshMs; open its HTML page in a browser to watch the run.
+ */
+public class ResultStream {
+
+    private static final String DEFAULT_FILE = "target/surefire-reports/results.jsonl";
+    private static final long DEFAULT_REFRESH_MS = 2000;
+    private static final Json JSON = new Json();
+
+    private static BufferedWriter writer;
+    private static Path file;
+    private static ResultReport liveReport;
+    private static ScheduledExecutorService refresher;
+    private static int openRuns = 0;
+
+    private ResultStream() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether results are streamed
+     * @return true unless results.stream is false
+     */
+    public static boolean isEnabled() {
+        return RunConfig.current().getBoolean("results.stream", true);
+    }
+
+    /**
+     * Records the start of a run; the first run in the JVM starts a new stream
+     * @param framework "testng" or "cucumber"
+     * @param plannedTests Number of tests the run expects, 0 if unknown
+     */
+    public static synchronized void runStarted(String framework, int plannedTests) {
+        if (!open()) {
+            return;
+        }
+        openRuns++;
+        Map<String, Object> event = event("run-start", framework);
+        event.put("planned", plannedTests);
+        write(event);
+        startLiveReport();
+    }
+
+    /**
+     * Records a finished test
+     * @param framework "testng" or "cucumber"
+     * @param id Stable test identifier, e.g. class and method or feature line
+     * @param name Readable test name
+     * @param status PASS, FAIL or SKIP
+     * @param durationMs Test duration
+     * @param error Failure cause, or null
+     */
+    public static synchronized void testFinished(String framework, String id, String name, String status,
+                                                 long durationMs, Throwable error) {
+        if (!open()) {
+            return;
+        }
+        Map<String, Object> event = event("test", framework);
+        event.put("id", id);
+        event.put("name", name);
+        event.put("status", status);
+        event.put("durationMs", durationMs);
+        event.put("thread", Thread.currentThread().getName());
+        event.put("browser", RunConfig.current().getBrowser());
+        if (error != null) {
+            String message = String.valueOf(error.getMessage()).lines().findFirst().orElse("");
+            event.put("error", error.getClass().getSimpleName() + ": " + message);
+        }
+        write(event);
+    }
+
+    /**
+     * Records the end of a run; the live report is finalised once every run has ended
+     * @param framework "testng" or "cucumber"
+     */
+    public static synchronized void runFinished(String framework) {
+        if (writer == null) {
+            return;
+        }
+        write(event("run-end", framework));
+        openRuns = Math.max(0, openRuns - 1);
+        if (openRuns == 0 && liveReport != null) {
+            // Lets a refresh in progress finish; the final one follows
+            refresher.shutdown();
+            refresher = null;
+            refreshLiveReport();
+            System.out.println("Test results: " + liveReport.getTarget().toUri());
+            liveReport = null;
+        }
+    }
+
+    public static synchronized Path getFile() {
+        return file;
+    }
+
+    private static boolean open() {
+        if (writer != null) {
+            return true;
+        }
+        if (!isEnabled()) {
+            return false;
+        }
+        file = configuredFile();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            writer = Files.newBufferedWriter(file);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error opening result stream: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return Stream location from results.stream.file
+     */
+    static Path configuredFile() {
+        return Paths.get(RunConfig.current().getString("results.stream.file", DEFAULT_FILE));
+    }
+
+    private static Map<String, Object> event(String type, String framework) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("time", System.currentTimeMillis());
+        event.put("framework", framework);
+        return event;
+    }
+
+    private static void write(Map<String, Object> event) {
+        try {
+            StringBuilder line = new StringBuilder();
+            try (JsonOutput output = JSON.newOutput(line)) {
+                output.setPrettyPrint(false).write(event);
+            }
+            writer.write(line.toString());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing result stream: " + e.getMessage());
+        }
+    }
+
+    private static void startLiveReport() {
+        if (liveReport != null || !RunConfig.current().getBoolean("results.live", true)) {
+            return;
+        }
+        liveReport = new ResultReport(file);
+        long refreshMs = refreshMs();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "result-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(ResultStream::refreshLiveReport, 0, refreshMs, TimeUnit.MILLISECONDS);
+        System.out.println("Live test results: " + liveReport.getTarget().toUri());
+    }
+
+    /**
+     * @return Interval at which the live report is rewritten (results.live.refreshMs)
+     */
+    static long refreshMs() {
+        return RunConfig.current().getLong("results.live.refreshMs", DEFAULT_REFRESH_MS);
+    }
+
+    private static void refreshLiveReport() {
+        ResultReport report;
+        synchronized (ResultStream.class) {
+            report = liveReport;
+        }
+        if (report == null) {
+            return;
+        }
+        try {
+            report.update();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error updating result report: " + e.getMessage());
+        }
+    }
+}
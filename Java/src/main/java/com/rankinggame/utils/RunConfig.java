@@ -0,0 +1,260 @@
+package com.rankinggame.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, typed snapshot of the run configuration. The base snapshot is
+ * loaded once from config.properties on the classpath, then environment
+ * variables (RG_ plus the key in upper snake case, e.g. RG_WAIT_TIMEOUT_SEC
+ * for wait.timeoutSec), then JVM system properties (-Dkey=value), each
+ * overriding the one before, so a tuning run changes values without a
+ * rebuild. Environment variables also set keys the file does not list,
+ * such as emulation.profiles.&lt;name&gt;. System properties are only taken
+ * for keys of the file or keys sharing the first segment of a dotted key
+ * in it (wait., matrix., emulation. and so on), so the JVM's own
+ * properties stay out of the configuration. Threads that set overrides
+ * (a matrix worker's browser, a test's emulation profile) see their own
+ * snapshot derived from the base one.
+ * Values used on every session or page are parsed once, when the snapshot
+ * is built.
+ */
+public final class RunConfig {
+
+    private static final String RESOURCE = "config.properties";
+    private static final String ENV_PREFIX = "RG_";
+
+    private static volatile RunConfig base = load();
+    private static final ThreadLocal<Map<String, String>> threadOverrides = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<RunConfig> threadSnapshots = new ThreadLocal<>();
+
+    private final RunConfig parent;
+    private final Map<String, String> values;
+    private final Map<String, String> environment;
+    private final String browser;
+    private final boolean headless;
+    private final Duration waitTimeout;
+    private final Duration waitPolling;
+    private final Duration implicitWait;
+    private final Duration pageLoadTimeout;
+    private final String emulationProfile;
+
+    private RunConfig(RunConfig parent, Map<String, String> values, Map<String, String> environment) {
+        this.parent = parent;
+        this.values = Map.copyOf(values);
+        this.environment = environment;
+        this.browser = getString("browser", "chrome").toLowerCase(Locale.ROOT);
+        this.headless = getBoolean("headless", false);
+        this.waitTimeout = Duration.ofSeconds(getLong("wait.timeoutSec", 10));
+        this.waitPolling = Duration.ofMillis(getLong("wait.pollingMs", 500));
+        this.implicitWait = Duration.ofSeconds(getLong("timeouts.implicitWaitSec", 10));
+        this.pageLoadTimeout = Duration.ofSeconds(getLong("timeouts.pageLoadSec", 30));
+        this.emulationProfile = getString("emulation.profile", "none");
+    }
+
+    /**
+     * Gets the configuration in effect on the current thread
+     * @return The base snapshot, or one with this thread's overrides applied
+     */
+    public static RunConfig current() {
+        Map<String, String> overrides = threadOverrides.get();
+        RunConfig currentBase = base;
+        if (overrides.isEmpty()) {
+            return currentBase;
+        }
+        RunConfig snapshot = threadSnapshots.get();
+        if (snapshot == null || snapshot.parent != currentBase) {
+            Map<String, String> merged = new HashMap<>(currentBase.values);
+            merged.putAll(overrides);
+            snapshot = new RunConfig(currentBase, merged, currentBase.environment);
+            threadSnapshots.set(snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Overrides a value for the current thread only
+     * @param key Property key
+     * @param value Value, or null to remove the override
+     */
+    static void setThreadOverride(String key, String value) {
+        Map<String, String> overrides = threadOverrides.get();
+        String previous = value == null ? overrides.remove(key) : overrides.put(key, value);
+        if (!Objects.equals(previous, value)) {
+            // Workers set the same overrides before every test; only a change needs a new snapshot
+            threadSnapshots.remove();
+        }
+    }
+
+    /**
+     * Reads the classpath file, environment and system properties again,
+     * e.g. after a test changed system properties. Thread overrides stay.
+     */
+    public static void reload() {
+        base = load();
+    }
+
+    private static RunConfig load() {
+        Properties file = new Properties();
+        try (InputStream input = RunConfig.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException(RESOURCE + " is not on the classpath");
+            }
+            file.load(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading " + RESOURCE, e);
+        }
+        Map<String, String> environment = System.getenv().entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(ENV_PREFIX))
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+        Map<String, String> values = new HashMap<>();
+        for (String key : file.stringPropertyNames()) {
+            values.put(key, environment.getOrDefault(envName(key), file.getProperty(key)));
+        }
+        Set<String> prefixes = file.stringPropertyNames().stream()
+                .filter(key -> key.contains("."))
+                .map(key -> key.substring(0, key.indexOf('.') + 1))
+                .collect(Collectors.toSet());
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (file.containsKey(key) || prefixes.stream().anyMatch(key::startsWith)) {
+                values.put(key, System.getProperty(key));
+            }
+        }
+        return new RunConfig(null, values, environment);
+    }
+
+    /**
+     * Environment variable that overrides a key
+     * @param key Property key, e.g. wait.timeoutSec
+     * @return Variable name, e.g. RG_WAIT_TIMEOUT_SEC
+     */
+    static String envName(String key) {
+        return ENV_PREFIX + key.replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+                .replaceAll("[^A-Za-z0-9]", "_").toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @param key Property key
+     * @return Raw value, or null if not set
+     */
+    public String get(String key) {
+        String value = values.get(key);
+        // Keys missing from the file (e.g. matrix.capacity.firefox) can still come from the environment
+        return value != null || environment.isEmpty() ? value : environment.get(envName(key));
+    }
+
+    /**
+     * @param key Property key
+     * @param defaultValue Value when the key is unset or blank
+     * @return Trimmed value
+     */
+    public String getString(String key, String defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * @param key Property key
+     * @param defaultValue Value when the key is unset or blank
+     * @return Parsed value
+     * @throws IllegalArgumentException if the value is not a whole number
+     */
+    public int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    /**
+     * @param key Property key
+     * @param defaultValue Value when the key is unset or blank
+     * @return Parsed value
+     * @throws IllegalArgumentException if the value is not a whole number
+     */
+    public long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Configuration " + key + "=" + value + " is not a whole number");
+        }
+    }
+
+    /**
+     * @param key Property key
+     * @param defaultValue Value when the key is unset or blank
+     * @return Parsed value
+     * @throws IllegalArgumentException if the value is not a number
+     */
+    public double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        try {
+            return value == null ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Configuration " + key + "=" + value + " is not a number");
+        }
+    }
+
+    /**
+     * @param key Property key
+     * @param defaultValue Value when the key is unset or blank
+     * @return true for "true" in any case, false for anything else
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * @return Browser to run (lower case), e.g. chrome or remote
+     */
+    public String getBrowser() {
+        return browser;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * @return Page object wait timeout (wait.timeoutSec)
+     */
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    /**
+     * @return Page object wait polling interval (wait.pollingMs)
+     */
+    public Duration getWaitPolling() {
+        return waitPolling;
+    }
+
+    /**
+     * @return Implicit wait of every session, leased or not (timeouts.implicitWaitSec)
+     */
+    public Duration getImplicitWait() {
+        return implicitWait;
+    }
+
+    /**
+     * @return Session page load timeout (timeouts.pageLoadSec)
+     */
+    public Duration getPageLoadTimeout() {
+        return pageLoadTimeout;
+    }
+
+    /**
+     * @return Network/CPU emulation profile name (emulation.profile)
+     */
+    public String getEmulationProfile() {
+        return emulationProfile;
+    }
+}
@@ -0,0 +1,72 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Stable driver reference whose underlying session can be swapped between
+ * tests, so page objects and test fields keep working after a recycle
+ */
+class SessionHandle implements InvocationHandler {
+
+    private volatile WebDriver target;
+    private final WebDriver proxy;
+
+    SessionHandle(WebDriver target) {
+        this.target = target;
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            for (Class<?> implemented : type.getInterfaces()) {
+                if (Modifier.isPublic(implemented.getModifiers())) {
+                    interfaces.add(implemented);
+                }
+            }
+        }
+        interfaces.add(WebDriver.class);
+        interfaces.add(WrapsDriver.class);
+        this.proxy = (WebDriver) Proxy.newProxyInstance(SessionHandle.class.getClassLoader(),
+                interfaces.toArray(new Class<?>[0]), this);
+    }
+
+    WebDriver getProxy() {
+        return proxy;
+    }
+
+    WebDriver getTarget() {
+        return target;
+    }
+
+    void swap(WebDriver newTarget) {
+        this.target = newTarget;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == WrapsDriver.class) {
+            return target;
+        }
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "SessionHandle(" + target + ")";
+            }
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
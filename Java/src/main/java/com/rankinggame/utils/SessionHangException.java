@@ -0,0 +1,23 @@
+package com.rankinggame.utils;
+
+import java.nio.file.Path;
+
+/**
+ * Thrown in place of a test's own failure when the watchdog had to kill its
+ * session because a command did not return in time
+ */
+public class SessionHangException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Path diagnostics;
+
+    SessionHangException(String message, Path diagnostics) {
+        super(diagnostics == null ? message : message + " (diagnostics: " + diagnostics + ")");
+        this.diagnostics = diagnostics;
+    }
+
+    /** @return Directory with the URL, screenshot and thread dump, or null if they could not be written */
+    public Path getDiagnostics() {
+        return diagnostics;
+    }
+}
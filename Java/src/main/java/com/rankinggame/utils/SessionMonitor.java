@@ -0,0 +1,291 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Samples browser resource usage after each test and decides when a
+ * long-lived session should be recycled. Process RSS and CPU are read for the
+ * driver process and its descendants (the browser), the JS heap through
+ * DevTools Performance.getMetrics. Samples are appended to a CSV time series.
+ */
+public class SessionMonitor {
+
+    private static final String SERIES_FILE = "target/surefire-reports/session-resources.csv";
+
+    private static final Map<WebDriver, Integer> servicePorts = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, String> browserProfiles = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, Integer> testsRun = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, Boolean> performanceEnabled = Collections.synchronizedMap(new WeakHashMap<>());
+    private static BufferedWriter series;
+
+    /**
+     * One resource sample for a session
+     */
+    public static final class Sample {
+        private final int testsRun;
+        private final long rssBytes;
+        private final long cpuMillis;
+        private final long jsHeapUsedBytes;
+        private final long jsHeapTotalBytes;
+
+        Sample(int testsRun, long rssBytes, long cpuMillis, long jsHeapUsedBytes, long jsHeapTotalBytes) {
+            this.testsRun = testsRun;
+            this.rssBytes = rssBytes;
+            this.cpuMillis = cpuMillis;
+            this.jsHeapUsedBytes = jsHeapUsedBytes;
+            this.jsHeapTotalBytes = jsHeapTotalBytes;
+        }
+
+        public int getTestsRun() {
+            return testsRun;
+        }
+
+        /** @return Resident memory of the driver and browser processes, or -1 if unknown */
+        public long getRssBytes() {
+            return rssBytes;
+        }
+
+        /** @return Total CPU time of the driver and browser processes, or -1 if unknown */
+        public long getCpuMillis() {
+            return cpuMillis;
+        }
+
+        /** @return Used JS heap of the current page, or -1 if unknown */
+        public long getJsHeapUsedBytes() {
+            return jsHeapUsedBytes;
+        }
+
+        public long getJsHeapTotalBytes() {
+            return jsHeapTotalBytes;
+        }
+    }
+
+    private SessionMonitor() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Remembers which driver process belongs to a session. On a shared
+     * service the session's own browser is told apart from the others by
+     * its profile directory.
+     * @param session Driver session
+     * @param service Driver service the session was started on
+     */
+    public static void register(WebDriver session, DriverService service) {
+        servicePorts.put(session, service.getUrl().getPort());
+        if (DriverServicePool.isShared(service)) {
+            String profile = profileDirectory(session);
+            if (profile != null) {
+                browserProfiles.put(session, profile);
+            }
+        }
+    }
+
+    private static String profileDirectory(WebDriver session) {
+        if (!(session instanceof HasCapabilities)) {
+            return null;
+        }
+        Capabilities capabilities = ((HasCapabilities) session).getCapabilities();
+        Object firefoxProfile = capabilities.getCapability("moz:profile");
+        if (firefoxProfile != null) {
+            return firefoxProfile.toString();
+        }
+        for (String vendor : new String[]{"chrome", "msedge"}) {
+            Object details = capabilities.getCapability(vendor);
+            if (details instanceof Map && ((Map<?, ?>) details).get("userDataDir") != null) {
+                return ((Map<?, ?>) details).get("userDataDir").toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether per-test sampling is switched on
+     * @return true unless monitor.enabled is false
+     */
+    public static boolean isEnabled() {
+        return RunConfig.current().getBoolean("monitor.enabled", true);
+    }
+
+    /**
+     * Checks whether sessions may be recycled between tests
+     * @return true if recycle.enabled is set
+     */
+    public static boolean isRecyclingEnabled() {
+        return RunConfig.current().getBoolean("recycle.enabled", false);
+    }
+
+    /**
+     * Counts a finished test against the session and samples its resources
+     * @param session Driver session the test used
+     * @return The new sample
+     */
+    public static Sample testFinished(WebDriver session) {
+        int count = testsRun.merge(session, 1, Integer::sum);
+        long rss = -1;
+        long cpu = -1;
+        List<ProcessHandle> tree = processTree(session);
+        if (!tree.isEmpty()) {
+            rss = tree.stream().mapToLong(SessionMonitor::residentBytes).filter(v -> v >= 0).sum();
+            cpu = tree.stream().map(p -> p.info().totalCpuDuration().orElse(Duration.ZERO))
+                    .mapToLong(Duration::toMillis).sum();
+        }
+        long heapUsed = -1;
+        long heapTotal = -1;
+        Map<String, Double> metrics = performanceMetrics(session);
+        if (!metrics.isEmpty()) {
+            heapUsed = metrics.getOrDefault("JSHeapUsedSize", -1.0).longValue();
+            heapTotal = metrics.getOrDefault("JSHeapTotalSize", -1.0).longValue();
+        }
+        return new Sample(count, rss, cpu, heapUsed, heapTotal);
+    }
+
+    /**
+     * Decides whether a sample exceeds the configured recycling thresholds
+     * (recycle.maxTestsPerSession, recycle.maxRssMb, recycle.maxJsHeapMb; 0 disables a limit)
+     * @param sample Latest sample of the session
+     * @return true if the session should be replaced
+     */
+    public static boolean shouldRecycle(Sample sample) {
+        long maxTests = limit("recycle.maxTestsPerSession");
+        long maxRssMb = limit("recycle.maxRssMb");
+        long maxHeapMb = limit("recycle.maxJsHeapMb");
+        return (maxTests > 0 && sample.testsRun >= maxTests)
+                || (maxRssMb > 0 && sample.rssBytes > maxRssMb * 1024 * 1024)
+                || (maxHeapMb > 0 && sample.jsHeapUsedBytes > maxHeapMb * 1024 * 1024);
+    }
+
+    /**
+     * Appends a sample to the run's time series
+     * @param browser Browser name
+     * @param sample Sample to write
+     * @param recycled Whether the session was recycled after this sample
+     */
+    public static synchronized void write(String browser, Sample sample, boolean recycled) {
+        try {
+            if (series == null) {
+                Path file = Paths.get(SERIES_FILE);
+                Files.createDirectories(file.getParent());
+                series = Files.newBufferedWriter(file);
+                series.write("timestamp,thread,browser,testsRun,rssMb,cpuMs,jsHeapUsedMb,jsHeapTotalMb,recycled");
+                series.newLine();
+            }
+            series.write(String.format(Locale.ROOT, "%s,%s,%s,%d,%.1f,%d,%.1f,%.1f,%b",
+                    Instant.now(), Thread.currentThread().getName(), browser, sample.testsRun,
+                    megabytes(sample.rssBytes), sample.cpuMillis, megabytes(sample.jsHeapUsedBytes),
+                    megabytes(sample.jsHeapTotalBytes), recycled));
+            series.newLine();
+            series.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing session resources: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Forgets the counters of a session that has been quit
+     * @param session Driver session
+     */
+    public static void forget(WebDriver session) {
+        testsRun.remove(session);
+        browserProfiles.remove(session);
+        performanceEnabled.remove(session);
+    }
+
+    /**
+     * Finds the local processes of a session, through decorators: the driver
+     * and everything below it, or only the session's own browser tree when
+     * the driver is shared with other sessions
+     * @param session Driver session
+     * @return Processes, empty for remote sessions or if they already ended
+     */
+    static List<ProcessHandle> processTree(WebDriver session) {
+        WebDriver unwrapped = CdpSupport.unwrap(session);
+        Optional<ProcessHandle> driverProcess = findDriverProcess(unwrapped);
+        if (driverProcess.isEmpty()) {
+            return List.of();
+        }
+        String profile = browserProfiles.get(unwrapped);
+        if (profile == null) {
+            return Stream.concat(Stream.of(driverProcess.get()), driverProcess.get().descendants())
+                    .collect(Collectors.toList());
+        }
+        return driverProcess.get().children()
+                .filter(p -> p.info().arguments().map(args -> String.join(" ", args).contains(profile)).orElse(false))
+                .flatMap(browser -> Stream.concat(Stream.of(browser), browser.descendants()))
+                .collect(Collectors.toList());
+    }
+
+    private static Optional<ProcessHandle> findDriverProcess(WebDriver session) {
+        Integer port = servicePorts.get(session);
+        if (port == null) {
+            return Optional.empty();
+        }
+        String portArgument = "--port=" + port;
+        return ProcessHandle.current().children()
+                .filter(p -> p.info().arguments().map(args -> List.of(args).contains(portArgument)).orElse(false))
+                .findFirst();
+    }
+
+    /**
+     * Reads VmRSS from /proc; other platforms report -1
+     */
+    private static long residentBytes(ProcessHandle process) {
+        Path status = Paths.get("/proc", String.valueOf(process.pid()), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Process ended or /proc is not available
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> performanceMetrics(WebDriver session) {
+        if (!CdpSupport.isAvailable(session)) {
+            return Collections.emptyMap();
+        }
+        try {
+            if (performanceEnabled.putIfAbsent(session, Boolean.TRUE) == null) {
+                CdpSupport.execute(session, "Performance.enable", Collections.emptyMap());
+            }
+            List<Map<String, Object>> metrics = (List<Map<String, Object>>)
+                    CdpSupport.execute(session, "Performance.getMetrics", Collections.emptyMap()).get("metrics");
+            return metrics.stream().collect(Collectors.toMap(
+                    m -> (String) m.get("name"), m -> ((Number) m.get("value")).doubleValue(), (a, b) -> b));
+        } catch (WebDriverException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    private static long limit(String key) {
+        return RunConfig.current().getLong(key, 0);
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes < 0 ? -1 : bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,141 @@
+package com.rankinggame.utils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects per-phase timings for driver session startup and shutdown.
+ * Timings are aggregated across the whole run and written as CSV next to
+ * the surefire results when the JVM exits.
+ */
+public class SessionProfiler {
+
+    /**
+     * Lifecycle phases of a driver session
+     */
+    public enum Phase {
+        /** WebDriverManager resolving (and possibly downloading) the driver binary */
+        DRIVER_RESOLUTION,
+        /** Spawning the driver process and waiting for it to accept connections */
+        SERVICE_START,
+        /** New-session command: browser launch plus the session handshake */
+        NEW_SESSION,
+        /** manage().timeouts() configuration */
+        TIMEOUTS,
+        /** manage().window().maximize() */
+        WINDOW_MAXIMIZE,
+        /** quit(): browser shutdown plus driver process stop */
+        QUIT
+    }
+
+    private static final String REPORT_FILE = "target/surefire-reports/session-phases.csv";
+    private static final long DEFAULT_SLOW_START_MS = 10_000;
+
+    private static final Map<Phase, List<Long>> samples = new EnumMap<>(Phase.class);
+    private static final ThreadLocal<Map<Phase, Long>> currentSession = ThreadLocal.withInitial(() -> new EnumMap<>(Phase.class));
+    private static boolean shutdownHookRegistered = false;
+
+    private SessionProfiler() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Records the duration of a phase for the session being built on this thread
+     * @param phase Lifecycle phase
+     * @param startNanos Value of System.nanoTime() taken when the phase began
+     */
+    public static void record(Phase phase, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        currentSession.get().merge(phase, elapsed, Long::sum);
+        synchronized (samples) {
+            samples.computeIfAbsent(phase, p -> new ArrayList<>()).add(elapsed);
+            if (!shutdownHookRegistered) {
+                Runtime.getRuntime().addShutdownHook(new Thread(SessionProfiler::export, "session-profiler-export"));
+                shutdownHookRegistered = true;
+            }
+        }
+    }
+
+    /**
+     * Closes the startup record for the session built on this thread and logs
+     * it when the total startup time exceeds the profiler.slowStartMs threshold
+     * @param browser Browser name
+     * @param options Capabilities the session was requested with
+     */
+    public static void sessionStarted(String browser, Object options) {
+        Map<Phase, Long> phases = currentSession.get();
+        long totalNanos = 0;
+        for (Phase phase : Phase.values()) {
+            if (phase != Phase.QUIT) {
+                totalNanos += phases.getOrDefault(phase, 0L);
+            }
+        }
+        long totalMs = totalNanos / 1_000_000;
+        if (totalMs > slowStartThresholdMs()) {
+            StringBuilder breakdown = new StringBuilder();
+            for (Map.Entry<Phase, Long> entry : phases.entrySet()) {
+                breakdown.append(String.format(Locale.ROOT, " %s=%dms", entry.getKey(), entry.getValue() / 1_000_000));
+            }
+            System.err.println("Slow session start: " + totalMs + "ms for " + browser
+                    + " (" + breakdown.toString().trim() + ") with options " + options);
+        }
+        phases.clear();
+    }
+
+    /**
+     * Drops whatever is left of the startup record on this thread, e.g. the
+     * phases of a session whose creation failed, so they are not counted
+     * towards the next session's total
+     */
+    public static void discardCurrent() {
+        currentSession.get().clear();
+    }
+
+    /**
+     * Writes the aggregated phase timings to the report file
+     */
+    public static void export() {
+        Path report = Paths.get(REPORT_FILE);
+        try {
+            Files.createDirectories(report.getParent());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report))) {
+                writer.println("phase,count,totalMs,meanMs,minMs,p50Ms,p95Ms,maxMs");
+                synchronized (samples) {
+                    for (Map.Entry<Phase, List<Long>> entry : samples.entrySet()) {
+                        List<Long> sorted = new ArrayList<>(entry.getValue());
+                        Collections.sort(sorted);
+                        long total = sorted.stream().mapToLong(Long::longValue).sum();
+                        writer.println(String.format(Locale.ROOT, "%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f",
+                                entry.getKey(), sorted.size(), millis(total), millis(total / sorted.size()),
+                                millis(sorted.get(0)), millis(percentile(sorted, 50)),
+                                millis(percentile(sorted, 95)), millis(sorted.get(sorted.size() - 1))));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing session profile: " + e.getMessage());
+        }
+    }
+
+    private static long slowStartThresholdMs() {
+        return RunConfig.current().getLong("profiler.slowStartMs", DEFAULT_SLOW_START_MS);
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,258 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects sessions whose current command has not returned within
+ * watchdog.commandTimeoutSec. A hung session gets its URL, a screenshot and
+ * a thread dump captured (each with a short time limit, since the browser is
+ * probably unresponsive), then its driver and browser processes are killed
+ * so the blocked test thread fails fast. DriverManager replaces the session
+ * after the test and the listener reports a {@link SessionHangException}.
+ */
+public class SessionWatchdog {
+
+    private static final String DIAGNOSTICS_DIR = "target/surefire-reports/hangs";
+    private static final long DEFAULT_TIMEOUT_SEC = 120;
+    private static final long CAPTURE_TIMEOUT_SEC = 5;
+
+    private static final Map<WebDriver, Watch> watches = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService scheduler;
+    private static ExecutorService workers;
+
+    private SessionWatchdog() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Checks whether hung sessions are detected
+     * @return true unless watchdog.enabled is false
+     */
+    public static boolean isEnabled() {
+        return RunConfig.current().getBoolean("watchdog.enabled", true);
+    }
+
+    /**
+     * Starts watching a session
+     * @param session Driver session
+     * @return Listener that reports command start and end to the watchdog
+     */
+    public static synchronized WebDriverListener watch(WebDriver session) {
+        Watch watch = new Watch(session);
+        watches.put(session, watch);
+        if (scheduler == null) {
+            long timeoutMillis = timeout().toMillis();
+            scheduler = Executors.newSingleThreadScheduledExecutor(daemon("session-watchdog"));
+            workers = Executors.newCachedThreadPool(daemon("session-watchdog-worker"));
+            long period = Math.max(1000, timeoutMillis / 10);
+            scheduler.scheduleAtFixedRate(SessionWatchdog::check, period, period, TimeUnit.MILLISECONDS);
+        }
+        return watch;
+    }
+
+    /**
+     * Stops watching a session that is being quit
+     * @param session Driver session, or a decorator around it
+     */
+    public static void forget(WebDriver session) {
+        Watch watch = find(session);
+        if (watch != null) {
+            watches.remove(watch.session);
+        }
+    }
+
+    /**
+     * Reports whether the watchdog killed a session
+     * @param driver Driver session, or a decorator around it
+     * @return The hang failure, or null if the session was not reclaimed
+     */
+    public static SessionHangException hangOf(WebDriver driver) {
+        Watch watch = find(driver);
+        return watch == null ? null : watch.hang;
+    }
+
+    private static Watch find(WebDriver driver) {
+        WebDriver watched = CdpSupport.findInWrapChain(driver, watches::containsKey);
+        return watched == null ? null : watches.get(watched);
+    }
+
+    private static void check() {
+        long limit = timeout().toNanos();
+        long now = System.nanoTime();
+        for (Watch watch : watches.values()) {
+            long started = watch.commandStart;
+            if (started != 0 && now - started > limit && watch.hang == null && !watch.reclaiming) {
+                watch.reclaiming = true;
+                workers.execute(() -> reclaim(watch, Duration.ofNanos(now - started)));
+            }
+        }
+    }
+
+    private static void reclaim(Watch watch, Duration stuckFor) {
+        String message = "Session hung: " + watch.command + " did not return within " + stuckFor.toSeconds() + "s";
+        System.err.println(message + " on " + watch.thread.getName() + ", killing the browser");
+        Path diagnostics = captureDiagnostics(watch, message);
+        watch.hang = new SessionHangException(message, diagnostics);
+        kill(watch.session);
+    }
+
+    private static Path captureDiagnostics(Watch watch, String message) {
+        Path dir = Paths.get(DIAGNOSTICS_DIR, Instant.now().toString().replace(':', '-') + "-" + watch.thread.getName());
+        try {
+            Files.createDirectories(dir);
+            String url = capture(() -> watch.session.getCurrentUrl());
+            Files.writeString(dir.resolve("summary.txt"), message + "\nurl: " + url + "\nthread: " + watch.thread.getName() + "\n");
+            if (watch.session instanceof TakesScreenshot) {
+                byte[] png = capture(() -> ((TakesScreenshot) watch.session).getScreenshotAs(OutputType.BYTES));
+                if (png != null) {
+                    Files.write(dir.resolve("screenshot.png"), png);
+                }
+            }
+            Files.writeString(dir.resolve("threads.txt"), threadDump(watch.thread));
+            return dir;
+        } catch (IOException e) {
+            System.err.println("Error writing hang diagnostics: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs a call against the hung session, giving up after a few seconds
+     */
+    private static <T> T capture(Callable<T> call) {
+        Future<T> result = workers.submit(call);
+        try {
+            return result.get(CAPTURE_TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            result.cancel(true);
+            return null;
+        }
+    }
+
+    private static String threadDump(Thread stuck) {
+        StringBuilder dump = new StringBuilder("Stuck test thread ").append(stuck.getName()).append(":\n");
+        for (StackTraceElement frame : stuck.getStackTrace()) {
+            dump.append("\tat ").append(frame).append('\n');
+        }
+        dump.append("\nAll threads:\n");
+        for (ThreadInfo info : ManagementFactory.getThreadMXBean().dumpAllThreads(true, true)) {
+            dump.append(info);
+        }
+        return dump.toString();
+    }
+
+    /**
+     * Kills the session's process tree (only its browser when the driver is
+     * shared); sessions without a local process (Grid) are quit from a
+     * worker thread instead. A multiplexed context only has its own context
+     * released, since its browser runs other tests too; the browser is only
+     * killed if it does not respond to that either.
+     */
+    private static void kill(WebDriver session) {
+        WebDriver sharedBrowser = BrowserMultiplexer.hostOf(session);
+        if (sharedBrowser != null) {
+            if (capture(() -> BrowserMultiplexer.release(session)) != null) {
+                return;
+            }
+            System.err.println("Shared browser does not respond, killing it with every context on it");
+        }
+        List<ProcessHandle> processes = SessionMonitor.processTree(sharedBrowser != null ? sharedBrowser : session);
+        if (processes.isEmpty()) {
+            workers.execute(() -> {
+                try {
+                    session.quit();
+                } catch (RuntimeException e) {
+                    // The blocked command fails either way
+                }
+            });
+            return;
+        }
+        // Children first, so nothing is re-parented and missed
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            processes.get(i).destroyForcibly();
+        }
+    }
+
+    private static Duration timeout() {
+        return Duration.ofSeconds(RunConfig.current().getLong("watchdog.commandTimeoutSec", DEFAULT_TIMEOUT_SEC));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Command state of one session, updated by the test thread
+     */
+    private static final class Watch implements WebDriverListener {
+        private final WebDriver session;
+        private volatile long commandStart;
+        private volatile String command;
+        private volatile Thread thread;
+        private volatile boolean reclaiming;
+        private volatile SessionHangException hang;
+        private int depth;
+
+        Watch(WebDriver session) {
+            this.session = session;
+            this.thread = Thread.currentThread();
+        }
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            // Decorated calls can nest (a WebElement call made while another is running)
+            if (depth++ == 0) {
+                command = target.getClass().getSimpleName() + "." + method.getName();
+                thread = Thread.currentThread();
+                commandStart = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            finish();
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            finish();
+        }
+
+        private void finish() {
+            if (depth > 0 && --depth == 0) {
+                commandStart = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Samples client-side memory after each cycle of a soak run and looks for
+ * leaks. Chromium sessions force a garbage collection, then read the JS heap
+ * (Runtime.getHeapUsage) and the DOM node, document and event listener
+ * counts (Memory.getDOMCounters); other browsers only report DOM nodes.
+ * Each series is checked with a Mann-Kendall trend test; a metric leaks when
+ * its upward trend is significant (soak.trendZ) and its Sen's slope exceeds
+ * the per-cycle tolerance (soak.tolerance.&lt;metric&gt;). Samples are
+ * written to a CSV time series under target/surefire-reports/soak.
+ */
+public class SoakMonitor implements AutoCloseable {
+
+    private static final String SERIES_DIR = "target/surefire-reports/soak";
+    private static final int DEFAULT_WARMUP_CYCLES = 3;
+    private static final double DEFAULT_TREND_Z = 2.33;
+
+    private static final String DOM_COUNTS_SCRIPT =
+            "return [document.getElementsByTagName('*').length, document.getElementsByTagName('audio').length];";
+
+    /** Metrics checked for growth, with their default per-cycle tolerance */
+    private static final Map<String, Double> DEFAULT_TOLERANCES = Map.of(
+            "jsHeapUsedBytes", 20_480.0,
+            "domNodes", 1.0,
+            "jsEventListeners", 1.0,
+            "documents", 0.0,
+            "audioElements", 0.0);
+
+    private final WebDriver driver;
+    private final Path seriesFile;
+    private final BufferedWriter series;
+    private final List<Sample> samples = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * One measurement taken after a cycle; -1 means the browser does not report the value
+     */
+    public static final class Sample {
+        private final int cycle;
+        private final long elapsedMs;
+        private final long jsHeapUsedBytes;
+        private final long domNodes;
+        private final long jsEventListeners;
+        private final long documents;
+        private final long audioElements;
+
+        Sample(int cycle, long elapsedMs, long jsHeapUsedBytes, long domNodes, long jsEventListeners,
+               long documents, long audioElements) {
+            this.cycle = cycle;
+            this.elapsedMs = elapsedMs;
+            this.jsHeapUsedBytes = jsHeapUsedBytes;
+            this.domNodes = domNodes;
+            this.jsEventListeners = jsEventListeners;
+            this.documents = documents;
+            this.audioElements = audioElements;
+        }
+
+        public int getCycle() {
+            return cycle;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        public long getJsHeapUsedBytes() {
+            return jsHeapUsedBytes;
+        }
+
+        public long getDomNodes() {
+            return domNodes;
+        }
+
+        public long getJsEventListeners() {
+            return jsEventListeners;
+        }
+
+        public long getDocuments() {
+            return documents;
+        }
+
+        public long getAudioElements() {
+            return audioElements;
+        }
+    }
+
+    /**
+     * Growth trend of one metric over the analysed cycles
+     */
+    public static final class Trend {
+        private final String metric;
+        private final int cycles;
+        private final double z;
+        private final double slopePerCycle;
+        private final long first;
+        private final long last;
+        private final boolean leak;
+
+        Trend(String metric, int cycles, double z, double slopePerCycle, long first, long last, boolean leak) {
+            this.metric = metric;
+            this.cycles = cycles;
+            this.z = z;
+            this.slopePerCycle = slopePerCycle;
+            this.first = first;
+            this.last = last;
+            this.leak = leak;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+
+        /** @return Mann-Kendall Z score; positive values indicate growth */
+        public double getZ() {
+            return z;
+        }
+
+        /** @return Sen's slope: median growth per cycle */
+        public double getSlopePerCycle() {
+            return slopePerCycle;
+        }
+
+        public boolean isLeak() {
+            return leak;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: %d -> %d over %d cycles, %.1f/cycle, Z=%.2f%s",
+                    metric, first, last, cycles, slopePerCycle, z, leak ? " (LEAK)" : "");
+        }
+    }
+
+    /**
+     * Starts a soak run
+     * @param driver Session the journey runs in
+     * @param name Run name used for the time series file
+     * @throws IOException if the time series file cannot be created
+     */
+    public SoakMonitor(WebDriver driver, String name) throws IOException {
+        this.driver = driver;
+        Files.createDirectories(Paths.get(SERIES_DIR));
+        this.seriesFile = Paths.get(SERIES_DIR, name + "-" + Instant.now().toString().replace(':', '-') + ".csv");
+        this.series = Files.newBufferedWriter(seriesFile);
+        series.write("timestamp,cycle,elapsedMs,jsHeapUsedBytes,domNodes,jsEventListeners,documents,audioElements");
+        series.newLine();
+    }
+
+    /**
+     * Measures the page after a completed cycle and appends it to the series
+     * @param cycle Cycle number, starting at 1
+     * @return The sample
+     */
+    public Sample sample(int cycle) {
+        long heap = -1;
+        long nodes = -1;
+        long listeners = -1;
+        long documents = -1;
+        if (CdpSupport.isAvailable(driver)) {
+            // Only retained memory counts; garbage that has not been collected yet is noise
+            CdpSupport.execute(driver, "HeapProfiler.collectGarbage", Map.of());
+            heap = number(CdpSupport.execute(driver, "Runtime.getHeapUsage", Map.of()).get("usedSize"));
+            Map<String, Object> counters = CdpSupport.execute(driver, "Memory.getDOMCounters", Map.of());
+            nodes = number(counters.get("nodes"));
+            listeners = number(counters.get("jsEventListeners"));
+            documents = number(counters.get("documents"));
+        }
+        long audio = -1;
+        try {
+            List<?> counts = (List<?>) ((JavascriptExecutor) driver).executeScript(DOM_COUNTS_SCRIPT);
+            if (nodes < 0) {
+                // Elements in the document only; detached nodes are invisible without DevTools
+                nodes = number(counts.get(0));
+            }
+            audio = number(counts.get(1));
+        } catch (WebDriverException | ClassCastException e) {
+            // Leave the DOM counts unknown for this cycle
+        }
+        Sample sample = new Sample(cycle, (System.nanoTime() - startNanos) / 1_000_000, heap, nodes, listeners,
+                documents, audio);
+        samples.add(sample);
+        try {
+            series.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%d", Instant.now(), cycle,
+                    sample.elapsedMs, heap, nodes, listeners, documents, audio));
+            series.newLine();
+            series.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing soak series: " + e.getMessage());
+        }
+        return sample;
+    }
+
+    /**
+     * Number of cycles that count towards the trend (after soak.warmupCycles)
+     * @return Analysed cycle count
+     */
+    public int getAnalysedCycles() {
+        return Math.max(0, samples.size() - warmupCycles());
+    }
+
+    /**
+     * Tests every reported metric for growth, ignoring the warm-up cycles
+     * where caches and lazy-loaded code legitimately grow the page
+     * @return One trend per metric the browser reports
+     */
+    public List<Trend> analyze() {
+        List<Sample> analysed = samples.subList(Math.min(warmupCycles(), samples.size()), samples.size());
+        Map<String, ToLongFunction<Sample>> metrics = new LinkedHashMap<>();
+        metrics.put("jsHeapUsedBytes", Sample::getJsHeapUsedBytes);
+        metrics.put("domNodes", Sample::getDomNodes);
+        metrics.put("jsEventListeners", Sample::getJsEventListeners);
+        metrics.put("documents", Sample::getDocuments);
+        metrics.put("audioElements", Sample::getAudioElements);
+        RunConfig config = RunConfig.current();
+        double trendZ = config.getDouble("soak.trendZ", DEFAULT_TREND_Z);
+        List<Trend> trends = new ArrayList<>();
+        for (Map.Entry<String, ToLongFunction<Sample>> entry : metrics.entrySet()) {
+            String metric = entry.getKey();
+            long[] values = analysed.stream().mapToLong(entry.getValue()).filter(v -> v >= 0).toArray();
+            if (values.length < 3) {
+                continue;
+            }
+            double z = mannKendallZ(values);
+            double slope = sensSlope(values);
+            double tolerance = config.getDouble("soak.tolerance." + metric, DEFAULT_TOLERANCES.get(metric));
+            trends.add(new Trend(metric, values.length, z, slope, values[0], values[values.length - 1],
+                    z > trendZ && slope > tolerance));
+        }
+        return trends;
+    }
+
+    /**
+     * Mann-Kendall test statistic with the tie correction, normalised to a Z score
+     */
+    static double mannKendallZ(long[] values) {
+        int n = values.length;
+        long s = 0;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                s += Long.signum(values[j] - values[i]);
+            }
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double ties = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j < n && sorted[j] == sorted[i]) {
+                j++;
+            }
+            long t = j - i;
+            ties += t * (t - 1) * (2 * t + 5);
+            i = j;
+        }
+        double variance = (n * (n - 1.0) * (2 * n + 5) - ties) / 18;
+        if (variance <= 0 || s == 0) {
+            return 0;
+        }
+        return (s > 0 ? s - 1 : s + 1) / Math.sqrt(variance);
+    }
+
+    /**
+     * Median of the pairwise slopes, robust against single outlier cycles
+     */
+    static double sensSlope(long[] values) {
+        int n = values.length;
+        double[] slopes = new double[n * (n - 1) / 2];
+        int k = 0;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                slopes[k++] = (values[j] - values[i]) / (double) (j - i);
+            }
+        }
+        Arrays.sort(slopes);
+        return k % 2 == 1 ? slopes[k / 2] : (slopes[k / 2 - 1] + slopes[k / 2]) / 2;
+    }
+
+    public Path getSeriesFile() {
+        return seriesFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        series.close();
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : -1;
+    }
+
+    private static int warmupCycles() {
+        return RunConfig.current().getInt("soak.warmupCycles", DEFAULT_WARMUP_CYCLES);
+    }
+}
@@ -0,0 +1,183 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Measures per-command round-trip latency of the WebDriver channel under
+ * different transport settings. Each variant is a set of configuration
+ * overrides (e.g. transport.httpVersion=HTTP_2 or service.shared=false)
+ * applied to the current thread; the benchmark opens a fresh session per
+ * variant, warms it up, then times small commands that are dominated by
+ * protocol overhead. JVM-wide pool settings (transport.keepAliveSec,
+ * transport.poolSize) are fixed once the first session exists, so compare
+ * those across separate runs.
+ */
+public class TransportBenchmark {
+
+    private static final String REPORT_FILE = "target/surefire-reports/transport-benchmark.csv";
+
+    private static final Map<String, Consumer<WebDriver>> COMMANDS = new LinkedHashMap<>();
+
+    static {
+        COMMANDS.put("getCurrentUrl", WebDriver::getCurrentUrl);
+        COMMANDS.put("getTitle", WebDriver::getTitle);
+        COMMANDS.put("executeScript", driver -> ((JavascriptExecutor) driver).executeScript("return 1;"));
+        COMMANDS.put("findElement", driver -> driver.findElement(By.tagName("body")));
+        COMMANDS.put("findElement+getText", driver -> driver.findElement(By.tagName("body")).getText());
+    }
+
+    // Listeners and background recorders that would add their own work to the timed commands
+    private static final Map<String, String> INSTRUMENTATION_OFF = Map.of(
+            "flightrecorder.enabled", "false",
+            "watchdog.enabled", "false",
+            "profiler.locators", "false",
+            "emulation.timings", "false");
+
+    private final List<Result> results = new ArrayList<>();
+
+    /**
+     * Latency statistics of one command under one variant
+     */
+    public static final class Result {
+        private final String variant;
+        private final String transport;
+        private final String command;
+        private final double[] sortedMicros;
+
+        Result(String variant, String transport, String command, double[] sortedMicros) {
+            this.variant = variant;
+            this.transport = transport;
+            this.command = command;
+            this.sortedMicros = sortedMicros;
+        }
+
+        public String getVariant() {
+            return variant;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public double getMeanMicros() {
+            return Arrays.stream(sortedMicros).average().orElse(0);
+        }
+
+        public double getPercentileMicros(int percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * sortedMicros.length) - 1;
+            return sortedMicros[Math.max(0, Math.min(index, sortedMicros.length - 1))];
+        }
+    }
+
+    /**
+     * Runs every command against a new session opened with the given overrides.
+     * Command listeners are switched off for the session, and the commands go
+     * to the unwrapped driver, so only the transport is measured.
+     * @param variant Variant name for the report
+     * @param overrides Configuration keys and values for this variant
+     * @param url Page to run the commands on
+     * @param warmup Untimed iterations per command
+     * @param iterations Timed iterations per command
+     */
+    public void run(String variant, Map<String, String> overrides, String url, int warmup, int iterations) {
+        Map<String, String> applied = new LinkedHashMap<>(overrides);
+        applied.putAll(INSTRUMENTATION_OFF);
+        applied.forEach(ConfigReader::setThreadOverride);
+        try {
+            WebDriver driver = CdpSupport.unwrap(DriverManager.getDriver());
+            try {
+                driver.get(url);
+                String transport = CommandTransport.describe();
+                for (Map.Entry<String, Consumer<WebDriver>> command : COMMANDS.entrySet()) {
+                    for (int i = 0; i < warmup; i++) {
+                        command.getValue().accept(driver);
+                    }
+                    double[] micros = new double[iterations];
+                    for (int i = 0; i < iterations; i++) {
+                        long start = System.nanoTime();
+                        command.getValue().accept(driver);
+                        micros[i] = (System.nanoTime() - start) / 1000.0;
+                    }
+                    Arrays.sort(micros);
+                    results.add(new Result(variant, transport, command.getKey(), micros));
+                }
+            } finally {
+                DriverManager.quitDriver();
+            }
+        } finally {
+            applied.keySet().forEach(key -> ConfigReader.setThreadOverride(key, null));
+        }
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * Parses variants written as "name:key=value,key=value;name2:..." (a
+     * variant without overrides runs the configured defaults)
+     * @param spec Variant list, e.g. from transport.benchmark.variants
+     * @return Overrides by variant name, in the given order
+     */
+    public static Map<String, Map<String, String>> parseVariants(String spec) {
+        Map<String, Map<String, String>> variants = new LinkedHashMap<>();
+        for (String variant : spec.split(";")) {
+            if (variant.isBlank()) {
+                continue;
+            }
+            String[] nameAndOverrides = variant.split(":", 2);
+            Map<String, String> overrides = new LinkedHashMap<>();
+            if (nameAndOverrides.length > 1) {
+                for (String pair : nameAndOverrides[1].split(",")) {
+                    String[] keyValue = pair.split("=", 2);
+                    if (keyValue.length == 2) {
+                        overrides.put(keyValue[0].trim(), keyValue[1].trim());
+                    }
+                }
+            }
+            variants.put(nameAndOverrides[0].trim(), overrides);
+        }
+        return variants;
+    }
+
+    /**
+     * Writes the results as CSV and prints a comparison table
+     * @return Report file
+     * @throws IOException if the report cannot be written
+     */
+    public Path writeReport() throws IOException {
+        Path report = Paths.get(REPORT_FILE);
+        Files.createDirectories(report.getParent());
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-20s %-22s %10s %10s %10s%n",
+                "variant", "command", "meanUs", "p50Us", "p95Us"));
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report))) {
+            writer.println("variant,transport,command,iterations,meanUs,p50Us,p95Us,p99Us,maxUs");
+            for (Result result : results) {
+                writer.println(String.format(Locale.ROOT, "%s,\"%s\",%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f",
+                        result.variant, result.transport, result.command, result.sortedMicros.length,
+                        result.getMeanMicros(), result.getPercentileMicros(50), result.getPercentileMicros(95),
+                        result.getPercentileMicros(99), result.getPercentileMicros(100)));
+                table.append(String.format(Locale.ROOT, "%-20s %-22s %10.1f %10.1f %10.1f%n", result.variant,
+                        result.command, result.getMeanMicros(), result.getPercentileMicros(50),
+                        result.getPercentileMicros(95)));
+            }
+        }
+        System.out.print("Transport benchmark:\n" + table);
+        return report;
+    }
+}
@@ -0,0 +1,83 @@
+package com.rankinggame.utils;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Outcome of a visual comparison against a baseline image
+ */
+public class VisualCheckResult {
+    private final String name;
+    private final boolean passed;
+    private final boolean baselineMissing;
+    private final int totalTiles;
+    private final int changedTiles;
+    private final long diffPixels;
+    private final double diffRatio;
+    private final Path diffImage;
+    private final Path recordedBaseline;
+
+    VisualCheckResult(String name, boolean passed, boolean baselineMissing, int totalTiles, int changedTiles,
+                      long diffPixels, double diffRatio, Path diffImage, Path recordedBaseline) {
+        this.name = name;
+        this.passed = passed;
+        this.baselineMissing = baselineMissing;
+        this.totalTiles = totalTiles;
+        this.changedTiles = changedTiles;
+        this.diffPixels = diffPixels;
+        this.diffRatio = diffRatio;
+        this.diffImage = diffImage;
+        this.recordedBaseline = recordedBaseline;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isPassed() {
+        return passed;
+    }
+
+    /** @return true if there was no baseline to compare against; the check is then not passed */
+    public boolean isBaselineMissing() {
+        return baselineMissing;
+    }
+
+    public int getTotalTiles() {
+        return totalTiles;
+    }
+
+    /** @return Number of tiles whose perceptual hash differed and were pixel-diffed */
+    public int getChangedTiles() {
+        return changedTiles;
+    }
+
+    public long getDiffPixels() {
+        return diffPixels;
+    }
+
+    /** @return Differing pixels as a fraction of unmasked pixels */
+    public double getDiffRatio() {
+        return diffRatio;
+    }
+
+    /** @return Diff image written for a failed check, or null */
+    public Path getDiffImage() {
+        return diffImage;
+    }
+
+    /** @return Capture recorded as a candidate baseline (missing baseline or update run), or null */
+    public Path getRecordedBaseline() {
+        return recordedBaseline;
+    }
+
+    @Override
+    public String toString() {
+        if (recordedBaseline != null) {
+            return name + ": " + (baselineMissing ? "no baseline, " : "") + "capture recorded to " + recordedBaseline;
+        }
+        return String.format(Locale.ROOT, "%s: %s (%d/%d tiles changed, %d pixels, %.4f%%)%s", name,
+                passed ? "passed" : "FAILED", changedTiles, totalTiles, diffPixels, diffRatio * 100,
+                diffImage == null ? "" : ", diff: " + diffImage);
+    }
+}
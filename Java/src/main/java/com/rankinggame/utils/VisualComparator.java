@@ -0,0 +1,440 @@
+package com.rankinggame.utils;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Rectangle;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compares screenshots against baseline PNGs tile by tile. Each tile gets a
+ * 64-bit average hash plus its quantized mean colour; only tiles whose hash
+ * differs from the baseline tile are compared pixel by pixel. Baseline pixels
+ * and tile hashes are decoded once per run, and the capture image and pixel
+ * buffers are reused per thread. Masked regions are ignored by both steps.
+ *
+ * Baselines are read from visual.baselineDir, one directory per browser,
+ * viewport size and headless mode (e.g. chrome-1280x720-headless), since
+ * each renders differently. Captures are never written there: a missing
+ * baseline, or a run with visual.updateBaselines, records the capture under
+ * target/visual-baselines with the same layout, to be reviewed and copied
+ * into the baseline directory.
+ */
+public class VisualComparator {
+
+    private static final String DEFAULT_BASELINE_DIR = "src/test/resources/visual-baselines";
+    private static final String RECORD_DIR = "target/visual-baselines";
+    private static final String DIFF_DIR = "target/visual-diffs";
+    private static final int DEFAULT_TILE_SIZE = 32;
+    private static final int DEFAULT_HASH_TOLERANCE = 0;
+    private static final int DEFAULT_PIXEL_TOLERANCE = 16;
+    private static final double DEFAULT_MAX_DIFF_RATIO = 0.001;
+    private static final int HASH_GRID = 8;
+
+    private static final Map<Path, Baseline> baselines = new ConcurrentHashMap<>();
+    private static final ThreadLocal<BufferedImage> captureBuffer = new ThreadLocal<>();
+    private static final ThreadLocal<ImageTypeSpecifier> captureType = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> pixelBuffer = new ThreadLocal<>();
+    private static final ThreadLocal<long[]> cellBuffer = ThreadLocal.withInitial(() -> new long[HASH_GRID * HASH_GRID]);
+
+    private VisualComparator() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Compares a PNG capture against the named baseline. Without a baseline,
+     * or with visual.updateBaselines set, the capture is recorded under
+     * target/visual-baselines instead of being compared.
+     * @param name Baseline name, unique per page state
+     * @param viewport Browser viewport the capture was taken in
+     * @param png Captured PNG bytes
+     * @param masks Regions to ignore, in screenshot pixels
+     * @return Comparison result; failed with isBaselineMissing() if there was no baseline
+     */
+    public static VisualCheckResult compare(String name, Dimension viewport, byte[] png, List<Rectangle> masks) {
+        String variant = variant(viewport);
+        String fileName = fileName(name) + ".png";
+        Path baselineFile = baselineDir().resolve(variant).resolve(fileName);
+        boolean update = RunConfig.current().getBoolean("visual.updateBaselines", false);
+        if (update || !Files.exists(baselineFile)) {
+            Path recorded = Paths.get(RECORD_DIR, variant, fileName);
+            writePng(recorded, png);
+            return new VisualCheckResult(name, update, !update, 0, 0, 0, 0, null, recorded);
+        }
+
+        BufferedImage actual = decodeCapture(png);
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        int tileSize = RunConfig.current().getInt("visual.tileSize", DEFAULT_TILE_SIZE);
+
+        Baseline baseline = baselines.computeIfAbsent(baselineFile, file -> Baseline.load(file, tileSize));
+        if (baseline.width != width || baseline.height != height) {
+            Path diff = writeImage(name + "-actual", actual);
+            System.err.println("Visual check " + name + ": capture is " + width + "x" + height
+                    + " but baseline is " + baseline.width + "x" + baseline.height);
+            return new VisualCheckResult(name, false, false, baseline.tiles(), baseline.tiles(), (long) width * height, 1, diff, null);
+        }
+
+        int[] pixels = pixels(actual);
+        int hashTolerance = RunConfig.current().getInt("visual.hashTolerance", DEFAULT_HASH_TOLERANCE);
+        int pixelTolerance = RunConfig.current().getInt("visual.pixelTolerance", DEFAULT_PIXEL_TOLERANCE);
+        List<Rectangle> clipped = clip(masks, width, height);
+        List<Rectangle> changed = new ArrayList<>();
+        long diffPixels = 0;
+        int tile = 0;
+
+        for (int y = 0; y < height; y += baseline.tileSize) {
+            for (int x = 0; x < width; x += baseline.tileSize, tile++) {
+                int w = Math.min(baseline.tileSize, width - x);
+                int h = Math.min(baseline.tileSize, height - y);
+                List<Rectangle> tileMasks = intersecting(clipped, x, y, w, h);
+                long baselineHash;
+                long baselineColour;
+                if (tileMasks.isEmpty()) {
+                    baselineHash = baseline.hashes[tile * 2];
+                    baselineColour = baseline.hashes[tile * 2 + 1];
+                } else {
+                    long[] masked = hash(baseline.pixels, width, x, y, w, h, tileMasks);
+                    baselineHash = masked[0];
+                    baselineColour = masked[1];
+                }
+                long[] actualHash = hash(pixels, width, x, y, w, h, tileMasks);
+                if (Long.bitCount(actualHash[0] ^ baselineHash) <= hashTolerance && actualHash[1] == baselineColour) {
+                    continue;
+                }
+                long tileDiff = diffTile(baseline.pixels, pixels, width, x, y, w, h, tileMasks, pixelTolerance);
+                if (tileDiff > 0) {
+                    changed.add(new Rectangle(x, y, h, w));
+                    diffPixels += tileDiff;
+                }
+            }
+        }
+
+        long comparedPixels = Math.max(1, (long) width * height - maskedArea(clipped));
+        double diffRatio = (double) diffPixels / comparedPixels;
+        boolean passed = diffRatio <= RunConfig.current().getDouble("visual.maxDiffRatio", DEFAULT_MAX_DIFF_RATIO);
+        Path diffImage = null;
+        if (!passed) {
+            diffImage = writeDiff(name, pixels, width, height, baseline, changed, clipped, pixelTolerance);
+        }
+        return new VisualCheckResult(name, passed, false, baseline.tiles(), changed.size(), diffPixels, diffRatio, diffImage, null);
+    }
+
+    /**
+     * Computes the average hash and quantized mean colour of one tile,
+     * treating masked pixels as black in both images
+     * @return [64-bit hash, packed 5-bit RGB mean]
+     */
+    private static long[] hash(int[] pixels, int stride, int x0, int y0, int w, int h, List<Rectangle> masks) {
+        int cols = Math.min(HASH_GRID, w);
+        int rows = Math.min(HASH_GRID, h);
+        long[] cells = cellBuffer.get();
+        long red = 0;
+        long green = 0;
+        long blue = 0;
+        for (int row = 0; row < rows; row++) {
+            int cy0 = y0 + row * h / rows;
+            int cy1 = y0 + (row + 1) * h / rows;
+            for (int col = 0; col < cols; col++) {
+                int cx0 = x0 + col * w / cols;
+                int cx1 = x0 + (col + 1) * w / cols;
+                long luminance = 0;
+                for (int y = cy0; y < cy1; y++) {
+                    int offset = y * stride;
+                    for (int x = cx0; x < cx1; x++) {
+                        int rgb = masks.isEmpty() || !masked(masks, x, y) ? pixels[offset + x] : 0;
+                        int r = (rgb >> 16) & 0xff;
+                        int g = (rgb >> 8) & 0xff;
+                        int b = rgb & 0xff;
+                        red += r;
+                        green += g;
+                        blue += b;
+                        luminance += 299 * r + 587 * g + 114 * b;
+                    }
+                }
+                cells[row * cols + col] = luminance / Math.max(1, (long) (cy1 - cy0) * (cx1 - cx0));
+            }
+        }
+        int cellCount = rows * cols;
+        long mean = 0;
+        for (int i = 0; i < cellCount; i++) {
+            mean += cells[i];
+        }
+        mean /= cellCount;
+        long bits = 0;
+        for (int i = 0; i < cellCount; i++) {
+            if (cells[i] > mean) {
+                bits |= 1L << i;
+            }
+        }
+        long area = (long) w * h;
+        long colour = (red / area >> 3) << 10 | (green / area >> 3) << 5 | (blue / area >> 3);
+        return new long[]{bits, colour};
+    }
+
+    private static long diffTile(int[] expected, int[] actual, int stride, int x0, int y0, int w, int h,
+                                 List<Rectangle> masks, int tolerance) {
+        long diff = 0;
+        for (int y = y0; y < y0 + h; y++) {
+            int offset = y * stride;
+            for (int x = x0; x < x0 + w; x++) {
+                if (pixelDiffers(expected[offset + x], actual[offset + x], tolerance)
+                        && (masks.isEmpty() || !masked(masks, x, y))) {
+                    diff++;
+                }
+            }
+        }
+        return diff;
+    }
+
+    private static boolean pixelDiffers(int expected, int actual, int tolerance) {
+        if (expected == actual) {
+            return false;
+        }
+        return Math.abs(((expected >> 16) & 0xff) - ((actual >> 16) & 0xff)) > tolerance
+                || Math.abs(((expected >> 8) & 0xff) - ((actual >> 8) & 0xff)) > tolerance
+                || Math.abs((expected & 0xff) - (actual & 0xff)) > tolerance;
+    }
+
+    private static boolean masked(List<Rectangle> masks, int x, int y) {
+        for (Rectangle mask : masks) {
+            if (x >= mask.x && x < mask.x + mask.width && y >= mask.y && y < mask.y + mask.height) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Rectangle> clip(List<Rectangle> masks, int width, int height) {
+        List<Rectangle> clipped = new ArrayList<>();
+        for (Rectangle mask : masks) {
+            int x0 = Math.max(0, mask.x);
+            int y0 = Math.max(0, mask.y);
+            int x1 = Math.min(width, mask.x + mask.width);
+            int y1 = Math.min(height, mask.y + mask.height);
+            if (x1 > x0 && y1 > y0) {
+                // Selenium's Rectangle takes (x, y, height, width)
+                clipped.add(new Rectangle(x0, y0, y1 - y0, x1 - x0));
+            }
+        }
+        return clipped;
+    }
+
+    private static List<Rectangle> intersecting(List<Rectangle> masks, int x, int y, int w, int h) {
+        if (masks.isEmpty()) {
+            return masks;
+        }
+        List<Rectangle> result = new ArrayList<>(2);
+        for (Rectangle mask : masks) {
+            if (mask.x < x + w && mask.x + mask.width > x && mask.y < y + h && mask.y + mask.height > y) {
+                result.add(mask);
+            }
+        }
+        return result;
+    }
+
+    private static long maskedArea(List<Rectangle> masks) {
+        // Overlapping masks are counted twice; the ratio only needs to be approximate
+        long area = 0;
+        for (Rectangle mask : masks) {
+            area += (long) mask.width * mask.height;
+        }
+        return area;
+    }
+
+    /**
+     * Decodes a capture into this thread's image, which is reused while
+     * captures keep the same size and pixel layout
+     */
+    private static BufferedImage decodeCapture(byte[] png) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(png))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Screenshot is not a readable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                ImageTypeSpecifier type = reader.getRawImageType(0);
+                if (type == null) {
+                    return reader.read(0);
+                }
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                BufferedImage image = captureBuffer.get();
+                if (image == null || image.getWidth() != width || image.getHeight() != height
+                        || !type.equals(captureType.get())) {
+                    image = type.createBufferedImage(width, height);
+                    captureBuffer.set(image);
+                    captureType.set(type);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setDestination(image);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode screenshot", e);
+        }
+    }
+
+    /**
+     * Copies the image into this thread's pixel buffer, growing it if needed
+     */
+    private static int[] pixels(BufferedImage image) {
+        int size = image.getWidth() * image.getHeight();
+        int[] buffer = pixelBuffer.get();
+        if (buffer == null || buffer.length < size) {
+            buffer = new int[size];
+            pixelBuffer.set(buffer);
+        }
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), buffer, 0, image.getWidth());
+    }
+
+    private static Path writeDiff(String name, int[] pixels, int width, int height, Baseline baseline,
+                                  List<Rectangle> changed, List<Rectangle> masks, int tolerance) {
+        BufferedImage diff = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        diff.setRGB(0, 0, width, height, pixels, 0, width);
+        int highlight = Color.MAGENTA.getRGB();
+        for (Rectangle tile : changed) {
+            for (int y = tile.y; y < tile.y + tile.height; y++) {
+                for (int x = tile.x; x < tile.x + tile.width; x++) {
+                    int i = y * width + x;
+                    if (pixelDiffers(baseline.pixels[i], pixels[i], tolerance) && !masked(masks, x, y)) {
+                        diff.setRGB(x, y, highlight);
+                    }
+                }
+            }
+        }
+        Graphics2D graphics = diff.createGraphics();
+        graphics.setColor(Color.RED);
+        changed.forEach(tile -> graphics.drawRect(tile.x, tile.y, tile.width - 1, tile.height - 1));
+        graphics.setColor(Color.GRAY);
+        masks.forEach(mask -> graphics.drawRect(mask.x, mask.y, mask.width - 1, mask.height - 1));
+        graphics.dispose();
+        return writeImage(name + "-diff", diff);
+    }
+
+    private static Path writeImage(String name, BufferedImage image) {
+        Path file = Paths.get(DIFF_DIR, fileName(name) + ".png");
+        try {
+            Files.createDirectories(file.getParent());
+            ImageIO.write(image, "png", file.toFile());
+            return file;
+        } catch (IOException e) {
+            System.err.println("Error writing visual diff: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writePng(Path file, byte[] png) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, png);
+            System.out.println("Recorded visual baseline " + file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write visual baseline " + file, e);
+        }
+    }
+
+    private static BufferedImage decode(byte[] png) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                throw new IllegalArgumentException("Screenshot is not a readable image");
+            }
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode screenshot", e);
+        }
+    }
+
+    private static Path baselineDir() {
+        return Paths.get(RunConfig.current().getString("visual.baselineDir", DEFAULT_BASELINE_DIR));
+    }
+
+    /**
+     * Baseline directory name for the current browser, viewport and mode,
+     * e.g. chrome-1280x720-headless
+     */
+    private static String variant(Dimension viewport) {
+        RunConfig config = RunConfig.current();
+        String browser = "remote".equals(config.getBrowser())
+                ? config.getString("remoteBrowser", "chrome").toLowerCase(Locale.ROOT) : config.getBrowser();
+        return String.format(Locale.ROOT, "%s-%dx%d%s", browser, viewport.getWidth(),
+                viewport.getHeight(), config.isHeadless() ? "-headless" : "");
+    }
+
+    private static String fileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static int tileCount(int width, int height, int tileSize) {
+        return ((width + tileSize - 1) / tileSize) * ((height + tileSize - 1) / tileSize);
+    }
+
+    /**
+     * Decoded baseline pixels with precomputed unmasked tile hashes
+     */
+    private static final class Baseline {
+        private final int width;
+        private final int height;
+        private final int tileSize;
+        private final int[] pixels;
+        private final long[] hashes;
+
+        private Baseline(int width, int height, int tileSize, int[] pixels, long[] hashes) {
+            this.width = width;
+            this.height = height;
+            this.tileSize = tileSize;
+            this.pixels = pixels;
+            this.hashes = hashes;
+        }
+
+        static Baseline load(Path file, int tileSize) {
+            BufferedImage image;
+            try {
+                image = decode(Files.readAllBytes(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read visual baseline " + file, e);
+            }
+            int width = image.getWidth();
+            int height = image.getHeight();
+            int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+            long[] hashes = new long[tileCount(width, height, tileSize) * 2];
+            int tile = 0;
+            for (int y = 0; y < height; y += tileSize) {
+                for (int x = 0; x < width; x += tileSize, tile++) {
+                    long[] hash = hash(pixels, width, x, y, Math.min(tileSize, width - x),
+                            Math.min(tileSize, height - y), List.of());
+                    hashes[tile * 2] = hash[0];
+                    hashes[tile * 2 + 1] = hash[1];
+                }
+            }
+            return new Baseline(width, height, tileSize, pixels, hashes);
+        }
+
+        int tiles() {
+            return hashes.length / 2;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.rankinggame.listeners;
+
+import com.rankinggame.utils.BrowserCapacity;
+import com.rankinggame.utils.ConfigReader;
+import com.rankinggame.utils.RunConfig;
+import org.testng.IAlterSuiteListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the suite across every browser in matrix.browsers in one invocation.
+ * Each &lt;test&gt; is copied once per browser, with the copies interleaved and
+ * the browser order rotated from test to test so all browser queues start
+ * moving at once; the tests then run in parallel, limited per browser by
+ * {@link BrowserCapacity}. Results are tagged with their browser and written
+ * to browser-matrix.csv plus a per-browser summary.
+ * Tests with the parameter matrix=false (e.g. Grid tests) run once, unchanged.
+ */
+public class BrowserMatrixListener implements IAlterSuiteListener, IInvokedMethodListener, IReporter {
+
+    private static final String BROWSER_PARAMETER = "matrix.browser";
+    private static final String REPORT_DIR = "target/surefire-reports";
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        List<String> browsers = BrowserCapacity.browsers();
+        if (browsers.isEmpty()) {
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            List<XmlTest> tests = new ArrayList<>(suite.getTests());
+            List<XmlTest> expanded = new ArrayList<>();
+            for (int i = 0; i < tests.size(); i++) {
+                XmlTest test = tests.get(i);
+                if ("false".equalsIgnoreCase(test.getLocalParameters().get("matrix"))) {
+                    expanded.add(test);
+                    continue;
+                }
+                for (int b = 0; b < browsers.size(); b++) {
+                    expanded.add(copyFor(test, browsers.get((i + b) % browsers.size())));
+                }
+            }
+            suite.setTests(expanded);
+            suite.setParallel(XmlSuite.ParallelMode.TESTS);
+            suite.setThreadCount(threadCount(browsers));
+        }
+    }
+
+    private XmlTest copyFor(XmlTest test, String browser) {
+        // XmlTest.clone() registers the copy with the suite and shares the class list, so build it by hand
+        XmlTest copy = new XmlTest();
+        copy.setName(test.getName() + " [" + browser + "]");
+        copy.setXmlSuite(test.getSuite());
+        copy.setPreserveOrder(test.getPreserveOrder());
+        copy.setIncludedGroups(test.getIncludedGroups());
+        copy.setExcludedGroups(test.getExcludedGroups());
+        copy.setXmlPackages(test.getXmlPackages());
+        copy.setMethodSelectors(test.getMethodSelectors());
+        Map<String, String> parameters = new HashMap<>(test.getLocalParameters());
+        parameters.put("browser", browser);
+        parameters.put(BROWSER_PARAMETER, browser);
+        copy.setParameters(parameters);
+        List<XmlClass> classes = new ArrayList<>();
+        for (XmlClass xmlClass : test.getXmlClasses()) {
+            XmlClass classCopy = (XmlClass) xmlClass.clone();
+            classCopy.setXmlTest(copy);
+            classes.add(classCopy);
+        }
+        copy.setXmlClasses(classes);
+        return copy;
+    }
+
+    private int threadCount(List<String> browsers) {
+        int threads = 0;
+        for (String browser : browsers) {
+            threads += BrowserCapacity.capacity(browser);
+        }
+        int maxSessions = RunConfig.current().getInt("matrix.maxSessions", 0);
+        if (maxSessions > 0) {
+            threads = Math.min(threads, maxSessions);
+        }
+        return Math.max(1, threads);
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        ConfigReader.setThreadOverride("browser", browserOf(testResult.getTestContext()));
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            testResult.setAttribute("browser", RunConfig.current().getBrowser());
+        }
+    }
+
+    /**
+     * Browser for a test: its matrix copy's browser, else the &lt;test&gt;
+     * or &lt;suite&gt; browser parameter unless -Dbrowser was given, else the
+     * configured one
+     */
+    private String browserOf(ITestContext context) {
+        XmlTest test = context.getCurrentXmlTest();
+        String browser = test.getParameter(BROWSER_PARAMETER);
+        if (browser == null && System.getProperty("browser") == null) {
+            // getAllParameters() includes suite-level parameters; a test's own value wins
+            browser = test.getAllParameters().get("browser");
+        }
+        return browser;
+    }
+
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        Map<String, int[]> summary = new TreeMap<>();
+        Path csv = Paths.get(REPORT_DIR, "browser-matrix.csv");
+        try {
+            Files.createDirectories(csv.getParent());
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+                out.println("suite,test,class,method,browser,status,durationMs");
+                for (ISuite suite : suites) {
+                    for (ISuiteResult suiteResult : suite.getResults().values()) {
+                        ITestContext context = suiteResult.getTestContext();
+                        write(out, summary, suite, context, context.getPassedTests().getAllResults());
+                        write(out, summary, suite, context, context.getFailedTests().getAllResults());
+                        write(out, summary, suite, context, context.getSkippedTests().getAllResults());
+                    }
+                }
+            }
+            writeSummary(summary);
+        } catch (IOException e) {
+            System.err.println("Error writing browser matrix report: " + e.getMessage());
+        }
+    }
+
+    private void write(PrintWriter out, Map<String, int[]> summary, ISuite suite, ITestContext context,
+                       Iterable<ITestResult> results) {
+        for (ITestResult result : results) {
+            Object attribute = result.getAttribute("browser");
+            String browser = attribute == null ? "" : attribute.toString();
+            String status = status(result.getStatus());
+            out.println(String.join(",", csv(suite.getName()), csv(context.getName()),
+                    csv(result.getTestClass().getRealClass().getName()), csv(result.getName()), csv(browser),
+                    status, String.valueOf(result.getEndMillis() - result.getStartMillis())));
+            int[] counts = summary.computeIfAbsent(browser, b -> new int[3]);
+            counts[result.getStatus() == ITestResult.SUCCESS ? 0 : result.getStatus() == ITestResult.SKIP ? 2 : 1]++;
+        }
+    }
+
+    private void writeSummary(Map<String, int[]> summary) throws IOException {
+        StringBuilder text = new StringBuilder(String.format("%-12s %8s %8s %8s%n", "browser", "passed", "failed", "skipped"));
+        for (Map.Entry<String, int[]> entry : summary.entrySet()) {
+            int[] counts = entry.getValue();
+            text.append(String.format("%-12s %8d %8d %8d%n", entry.getKey(), counts[0], counts[1], counts[2]));
+        }
+        Files.writeString(Paths.get(REPORT_DIR, "browser-matrix-summary.txt"), text);
+        System.out.print("Browser matrix results:\n" + text);
+    }
+
+    private static String status(int status) {
+        switch (status) {
+            case ITestResult.SUCCESS:
+                return "PASS";
+            case ITestResult.SKIP:
+                return "SKIP";
+            default:
+                return "FAIL";
+        }
+    }
+
+    private static String csv(String value) {
+        return value.contains(",") || value.contains("\"") ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+}
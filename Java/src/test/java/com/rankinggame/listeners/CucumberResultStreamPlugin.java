@@ -0,0 +1,47 @@
+package com.rankinggame.listeners;
+
+import com.rankinggame.utils.ResultStream;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+
+/**
+ * Cucumber plugin that streams each scenario result to the
+ * {@link ResultStream} as soon as the scenario finishes
+ */
+public class CucumberResultStreamPlugin implements ConcurrentEventListener {
+
+    private static final String FRAMEWORK = "cucumber";
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> ResultStream.runStarted(FRAMEWORK, 0));
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> ResultStream.runFinished(FRAMEWORK));
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        Result result = event.getResult();
+        String status;
+        switch (result.getStatus()) {
+            case PASSED:
+                status = "PASS";
+                break;
+            case SKIPPED:
+            case PENDING:
+                status = "SKIP";
+                break;
+            default:
+                // Failed, undefined and ambiguous steps all fail the scenario
+                status = "FAIL";
+                break;
+        }
+        ResultStream.testFinished(FRAMEWORK, testCase.getUri() + ":" + testCase.getLocation().getLine(),
+                testCase.getName(), status, result.getDuration().toMillis(), result.getError());
+    }
+}
@@ -0,0 +1,17 @@
+package com.rankinggame.listeners;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a test method, or every test of a class, under a named network and CPU
+ * emulation profile (see EmulationProfile). Applied by {@link EmulationListener}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Emulate {
+    /** @return Profile name, e.g. "3g", "slow-4g" or "cpu-4x" */
+    String value();
+}
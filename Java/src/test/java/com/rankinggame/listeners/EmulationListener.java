@@ -0,0 +1,47 @@
+package com.rankinggame.listeners;
+
+import com.rankinggame.utils.DriverManager;
+import org.testng.IConfigurationListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+
+/**
+ * Selects the network and CPU emulation profile for each test: an
+ * {@link Emulate} annotation on the test method or its class wins, then the
+ * "emulation" parameter of the &lt;test&gt; or suite, then emulation.profile from
+ * configuration. Before-method configuration runs under the profile of the
+ * test it prepares, so page loads in setup are throttled too.
+ */
+public class EmulationListener implements IInvokedMethodListener, IConfigurationListener {
+
+    @Override
+    public void beforeConfiguration(ITestResult testResult, ITestNGMethod testMethod) {
+        DriverManager.emulate(profileFor(testResult, testMethod));
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            DriverManager.emulate(profileFor(testResult, method.getTestMethod()));
+        }
+    }
+
+    private String profileFor(ITestResult testResult, ITestNGMethod testMethod) {
+        if (testMethod != null) {
+            Method javaMethod = testMethod.getConstructorOrMethod().getMethod();
+            Emulate emulate = javaMethod == null ? null : javaMethod.getAnnotation(Emulate.class);
+            if (emulate == null) {
+                Class<?> testClass = testMethod.getRealClass();
+                emulate = testClass.getAnnotation(Emulate.class);
+            }
+            if (emulate != null) {
+                return emulate.value();
+            }
+        }
+        return testResult.getTestContext().getCurrentXmlTest().getParameter("emulation");
+    }
+}
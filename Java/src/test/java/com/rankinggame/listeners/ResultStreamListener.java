@@ -0,0 +1,67 @@
+package com.rankinggame.listeners;
+
+import com.rankinggame.utils.ResultStream;
+import io.cucumber.testng.AbstractTestNGCucumberTests;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Streams each TestNG result to the {@link ResultStream} as soon as the test
+ * finishes. Cucumber scenarios are reported by CucumberResultStreamPlugin
+ * instead, with their scenario names.
+ */
+public class ResultStreamListener implements ISuiteListener, ITestListener {
+
+    private static final String FRAMEWORK = "testng";
+
+    @Override
+    public void onStart(ISuite suite) {
+        ResultStream.runStarted(FRAMEWORK, suite.getAllMethods().size());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ResultStream.runFinished(FRAMEWORK);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        stream(result, "PASS");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        stream(result, "FAIL");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        stream(result, "SKIP");
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        stream(result, "PASS");
+    }
+
+    private void stream(ITestResult result, String status) {
+        Class<?> testClass = result.getTestClass().getRealClass();
+        if (AbstractTestNGCucumberTests.class.isAssignableFrom(testClass)) {
+            return;
+        }
+        String id = testClass.getName() + "." + result.getMethod().getMethodName();
+        String name = testClass.getSimpleName() + "." + result.getName();
+        Object[] parameters = result.getParameters();
+        if (parameters != null && parameters.length > 0) {
+            String arguments = Arrays.stream(parameters).map(String::valueOf).collect(Collectors.joining(", "));
+            name += "(" + (arguments.length() > 120 ? arguments.substring(0, 120) + "..." : arguments) + ")";
+        }
+        ResultStream.testFinished(FRAMEWORK, id, name, status, result.getEndMillis() - result.getStartMillis(),
+                result.getThrowable());
+    }
+}
@@ -0,0 +1,42 @@
+package com.rankinggame.listeners;
+
+import com.rankinggame.utils.RunConfig;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Applies the parallelism settings from {@link RunConfig} to the suite, so
+ * thread counts can be tuned with -Dparallel.threadCount=8 or
+ * RG_PARALLEL_THREAD_COUNT=8 instead of editing the suite file. Unset
+ * values (empty or 0) leave the suite as it is. Registered after
+ * {@link BrowserMatrixListener} so explicit settings win over the
+ * matrix's computed thread count.
+ */
+public class RunConfigListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        RunConfig config = RunConfig.current();
+        String mode = config.getString("parallel.mode", null);
+        int threadCount = config.getInt("parallel.threadCount", 0);
+        int dataProviderThreadCount = config.getInt("parallel.dataProviderThreadCount", 0);
+        for (XmlSuite suite : suites) {
+            if (mode != null) {
+                XmlSuite.ParallelMode parallel = XmlSuite.ParallelMode.getValidParallel(mode);
+                if (parallel == null) {
+                    throw new IllegalArgumentException("Configuration parallel.mode=" + mode
+                            + " is not a TestNG parallel mode");
+                }
+                suite.setParallel(parallel);
+            }
+            if (threadCount > 0) {
+                suite.setThreadCount(threadCount);
+            }
+            if (dataProviderThreadCount > 0) {
+                suite.setDataProviderThreadCount(dataProviderThreadCount);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.rankinggame.listeners;
+
+import com.rankinggame.utils.BrowserLog;
+import com.rankinggame.utils.DriverManager;
+import com.rankinggame.utils.FlightRecorder;
+import com.rankinggame.utils.SessionHangException;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Marks the browser log at the start of each test method, fails tests whose
+ * session was killed by the watchdog, attaches the browser log and a flight
+ * recorder dump to failed tests, and lets DriverManager sample and, if
+ * needed, replace the session right after the test, before the next one starts
+ */
+public class SessionLifecycleListener implements IInvokedMethodListener {
+
+    private static final String BROWSER_LOG_DIR = "target/surefire-reports/browser-logs";
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        BrowserLog log = method.isTestMethod() ? DriverManager.getBrowserLog() : null;
+        if (log != null) {
+            log.mark();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            SessionHangException hang = DriverManager.getSessionHang();
+            if (hang != null) {
+                // Report the hang instead of the connection error the killed session caused
+                if (testResult.getThrowable() != null) {
+                    hang.addSuppressed(testResult.getThrowable());
+                }
+                testResult.setStatus(ITestResult.FAILURE);
+                testResult.setThrowable(hang);
+            }
+            if (testResult.getStatus() == ITestResult.FAILURE) {
+                attachBrowserLog(testResult);
+                dumpFlightRecording(testResult);
+            }
+            DriverManager.afterTest();
+        }
+    }
+
+    private void dumpFlightRecording(ITestResult testResult) {
+        FlightRecorder.Recording recording = DriverManager.getFlightRecording();
+        if (recording == null) {
+            return;
+        }
+        String name = testResult.getTestClass().getRealClass().getSimpleName() + "." + testResult.getName();
+        Path file = recording.dump(name, testResult.getThrowable());
+        testResult.setAttribute("flightRecording", file.toString());
+        Reporter.setCurrentTestResult(testResult);
+        Reporter.log("Flight recording: " + file);
+    }
+
+    private void attachBrowserLog(ITestResult testResult) {
+        BrowserLog log = DriverManager.getBrowserLog();
+        if (log == null) {
+            return;
+        }
+        List<BrowserLog.Entry> entries = log.entriesSinceMark();
+        if (entries.isEmpty()) {
+            return;
+        }
+        String text = BrowserLog.format(entries);
+        testResult.setAttribute("browserLog", text);
+        Reporter.setCurrentTestResult(testResult);
+        Reporter.log("Browser log (" + entries.size() + " entries):<pre>"
+                + text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") + "</pre>");
+        String name = testResult.getTestClass().getRealClass().getSimpleName() + "." + testResult.getName();
+        Path file = Paths.get(BROWSER_LOG_DIR, name + "-" + testResult.getStartMillis() + ".log");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, text);
+        } catch (IOException e) {
+            System.err.println("Error writing browser log: " + e.getMessage());
+        }
+    }
+}
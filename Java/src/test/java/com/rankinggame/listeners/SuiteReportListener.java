@@ -0,0 +1,26 @@
+package com.rankinggame.listeners;
+
+import com.rankinggame.utils.BrowserMultiplexer;
+import com.rankinggame.utils.DriverServicePool;
+import com.rankinggame.utils.EmulationTimings;
+import com.rankinggame.utils.FlightRecorder;
+import com.rankinggame.utils.LocatorProfiler;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Writes the end-of-suite performance reports and stops the browsers and
+ * driver services shared across tests
+ */
+public class SuiteReportListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(ISuite suite) {
+        LocatorProfiler.writeReport();
+        EmulationTimings.writeReport();
+        FlightRecorder.awaitWrites(30);
+        // Shared browsers run on shared services, so they go first
+        BrowserMultiplexer.shutdown();
+        DriverServicePool.shutdown();
+    }
+}
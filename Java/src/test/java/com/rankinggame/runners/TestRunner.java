@@ -6,7 +6,8 @@ import io.cucumber.testng.CucumberOptions;
 @CucumberOptions(
     features = "src/test/resources/features", // Path to your feature files
     glue = "com.rankinggame.stepdefinitions", // Package where your step definitions are located
-    plugin = {"pretty", "html:target/cucumber-reports"}, // Reporting plugins
+    plugin = {"pretty", "html:target/cucumber-reports",
+            "com.rankinggame.listeners.CucumberResultStreamPlugin"}, // Reporting plugins; results also stream to results.jsonl
     tags = "@all" // Tags to run; use "@all" to run all scenarios
 )
 public class TestRunner extends AbstractTestNGCucumberTests {
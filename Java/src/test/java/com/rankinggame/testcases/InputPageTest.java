@@ -1,12 +1,15 @@
 package com.rankinggame.testcases;
 
 import com.rankinggame.pages.InputPage;
+import com.rankinggame.pages.NavigationTiming;
 import com.rankinggame.pages.SplashPage;
 import com.rankinggame.utils.DriverManager;
+import com.rankinggame.utils.VisualCheckResult;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -102,10 +105,12 @@ public class InputPageTest {
         boolean isEnabled = inputPage.isRankButtonEnabled();
         Assert.assertTrue(isEnabled, "Rank button should be enabled after filling all fields");
         
-        // Use JavaScript to click the rank button
-        inputPage.clickRankButtonJS();
+        // Use JavaScript to click the rank button and wait for the route change
+        NavigationTiming navigation = inputPage.clickRankButtonAndWaitForMatchup();
         
         // Verify navigation to next page
+        Assert.assertTrue(navigation.getUrl().contains("/matchup"), 
+            "URL should contain '/matchup' after clicking Rank button");
         Assert.assertTrue(driver.getCurrentUrl().contains("/matchup"), 
             "URL should contain '/matchup' after clicking Rank button");
     }
@@ -177,15 +182,24 @@ public class InputPageTest {
         inputPage.enterTextInInputField(1, "Item 2");
         
         // Click reset button - this should navigate back to splash page
-        inputPage.clickResetButton();
+        inputPage.clickResetButtonAndWaitForSplash();
         
         // Verify we're back at the splash page
-        Assert.assertTrue(driver.getCurrentUrl().contains("/"), 
-            "URL should be the root path after clicking Reset");
+        Assert.assertTrue(splashPage.isShown(),
+            "Splash page topic input should be shown after clicking Reset");
         Assert.assertFalse(driver.getCurrentUrl().contains("/input"), 
             "URL should not contain '/input' after clicking Reset");
     }
 
+    @Test(description = "Verify input page matches its visual baseline")
+    public void testInputPageVisuals() {
+        VisualCheckResult result = inputPage.checkInputVisuals();
+        if (result.isBaselineMissing()) {
+            throw new SkipException(result.toString());
+        }
+        Assert.assertTrue(result.isPassed(), result.toString());
+    }
+
     @AfterMethod
     public void tearDown() {
         DriverManager.quitDriver();
@@ -0,0 +1,73 @@
+package com.rankinggame.testcases;
+
+import com.rankinggame.utils.DriverManager;
+import com.rankinggame.utils.NetworkMocks;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+public class NetworkMockTest {
+
+    private static final String FETCH_SCRIPT =
+            "var done = arguments[arguments.length - 1], start = performance.now();" +
+            "fetch(arguments[0]).then(function(r) { return r.text(); })" +
+            "  .then(function(body) { done([body, performance.now() - start]); }," +
+            "        function(e) { done(['error: ' + e, 0]); });";
+
+    private WebDriver driver;
+    private NetworkMocks mocks;
+    private final String HOME_PAGE_URL = "https://rg.ruthprudence.com";
+
+    @BeforeClass
+    public void setup() {
+        driver = DriverManager.getDriver();
+        try {
+            mocks = DriverManager.getNetworkMocks();
+        } catch (UnsupportedOperationException e) {
+            throw new SkipException(e.getMessage());
+        }
+        driver.get(HOME_PAGE_URL);
+    }
+
+    @Test(description = "Verify a mocked document is served without reaching the server", priority = 1)
+    public void testMockedDocument() {
+        NetworkMocks.Mock mock = mocks.respond(HOME_PAGE_URL + "/mocked-results*", 200, "text/html",
+                "<html><body><h1 id=\"mocked\">Mocked results</h1></body></html>");
+        driver.get(HOME_PAGE_URL + "/mocked-results");
+        Assert.assertEquals(driver.findElement(By.id("mocked")).getText(), "Mocked results");
+        Assert.assertEquals(mock.getHitCount(), 1);
+        Assert.assertEquals(mock.getHits().get(0).getMethod(), "GET");
+    }
+
+    @Test(description = "Verify a mocked API response arrives after the injected latency", priority = 2)
+    public void testMockedApiWithLatency() {
+        NetworkMocks.Mock mock = mocks.respond("*/api/mock-matchups", 200, "application/json",
+                "[\"Apples\",\"Oranges\"]").withLatency(Duration.ofMillis(300));
+        List<?> result = (List<?>) ((JavascriptExecutor) driver).executeAsyncScript(FETCH_SCRIPT,
+                HOME_PAGE_URL + "/api/mock-matchups");
+        Assert.assertEquals(result.get(0), "[\"Apples\",\"Oranges\"]");
+        Assert.assertTrue(((Number) result.get(1)).doubleValue() >= 300, "Response took " + result.get(1) + "ms");
+        Assert.assertTrue(mock.isHit());
+    }
+
+    @AfterMethod
+    public void clearMocks() {
+        if (mocks != null) {
+            mocks.clear();
+        }
+    }
+
+    @AfterClass
+    public void tearDown() {
+        DriverManager.quitDriver();
+    }
+}
@@ -0,0 +1,131 @@
+package com.rankinggame.testcases;
+
+import com.rankinggame.pages.SplashPage;
+import com.rankinggame.utils.CdpSupport;
+import com.rankinggame.utils.DriverManager;
+import com.rankinggame.utils.GridSessionScheduler;
+import com.rankinggame.utils.RunConfig;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.grid.commands.Standalone;
+import org.openqa.selenium.grid.config.MapConfig;
+import org.openqa.selenium.grid.server.Server;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs against an in-process standalone Grid. Starts a Grid and a local
+ * browser, so it is not part of the default suite: mvn test -Pgrid
+ */
+public class RemoteGridTest {
+
+    private final String HOME_PAGE_URL = "https://rg.ruthprudence.com";
+    private static final String[] GRID_PROPERTIES = {"browser", "gridUrl", "grid.maxSessionsPerNode"};
+
+    private Server<?> grid;
+    private final Map<String, String> previousProperties = new HashMap<>();
+
+    @BeforeClass
+    public void startStandaloneGrid() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        // Standalone node on localhost with two slots; browsers are found by selenium-manager
+        grid = new Standalone().asServer(new MapConfig(Map.of(
+                "server", Map.of("port", port),
+                "node", Map.of("max-sessions", 2, "selenium-manager", true)))).start();
+        for (String key : GRID_PROPERTIES) {
+            previousProperties.put(key, System.getProperty(key));
+        }
+        System.setProperty("browser", "remote");
+        System.setProperty("gridUrl", "http://localhost:" + port);
+        System.setProperty("grid.maxSessionsPerNode", "2");
+        RunConfig.reload();
+        GridSessionScheduler.reset();
+    }
+
+    @Test
+    public void testSchedulerReadsGridCapacity() {
+        Assert.assertEquals(GridSessionScheduler.getInstance().getCapacity(), 2);
+    }
+
+    @Test
+    public void testSplashPageOnGridSession() throws IOException {
+        WebDriver driver = DriverManager.getDriver();
+        // The driver is wrapped by the session handle and command listeners; local drivers
+        // (ChromeDriver and friends) subclass RemoteWebDriver, so the exact class is checked
+        WebDriver session = CdpSupport.unwrap(driver);
+        Assert.assertEquals(session.getClass(), RemoteWebDriver.class);
+        GridSessionScheduler.Endpoint endpoint = DriverManager.getGridEndpoint();
+        Assert.assertNotNull(endpoint, "Session should be scheduled on a Grid endpoint");
+        String sessionId = ((RemoteWebDriver) session).getSessionId().toString();
+        Assert.assertTrue(gridSessionIds(endpoint.getUrl()).contains(sessionId),
+                "Session " + sessionId + " should be running on " + endpoint);
+        SplashPage splashPage = new SplashPage(driver);
+        driver.get(HOME_PAGE_URL);
+        Assert.assertEquals(splashPage.getHeadingText(), "the Ranking Game");
+    }
+
+    /**
+     * Reads the ids of the sessions running on a Grid from its status endpoint
+     */
+    @SuppressWarnings("unchecked")
+    private static Set<String> gridSessionIds(URL grid) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(grid, "/status").openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            Map<String, Object> status = new Json().toType(new String(in.readAllBytes(), StandardCharsets.UTF_8), Map.class);
+            Map<String, Object> value = (Map<String, Object>) status.get("value");
+            Set<String> ids = new HashSet<>();
+            for (Map<String, Object> node : (List<Map<String, Object>>) value.get("nodes")) {
+                for (Map<String, Object> slot : (List<Map<String, Object>>) node.get("slots")) {
+                    Map<String, Object> running = (Map<String, Object>) slot.get("session");
+                    if (running != null) {
+                        ids.add(String.valueOf(running.get("sessionId")));
+                    }
+                }
+            }
+            return ids;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        DriverManager.quitDriver();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStandaloneGrid() {
+        for (String key : GRID_PROPERTIES) {
+            String previous = previousProperties.get(key);
+            if (previous == null) {
+                System.clearProperty(key);
+            } else {
+                System.setProperty(key, previous);
+            }
+        }
+        RunConfig.reload();
+        GridSessionScheduler.reset();
+        if (grid != null) {
+            grid.stop();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.rankinggame.testcases;
+
+import com.rankinggame.pages.InputPage;
+import com.rankinggame.pages.ResultsPage;
+import com.rankinggame.pages.SplashPage;
+import com.rankinggame.pages.VotingPage;
+import com.rankinggame.utils.DriverManager;
+import com.rankinggame.utils.RankingOracle;
+import com.rankinggame.utils.RunConfig;
+import com.rankinggame.utils.SoakMonitor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Plays the full journey over and over in one tab to expose client-side
+ * leaks. Runs from testng-soak.xml (mvn test -Psoak) for soak.durationMin
+ * minutes or soak.maxCycles cycles, whichever comes first.
+ */
+public class SoakTest {
+
+    private static final List<String> ITEMS = List.of("Item 1", "Item 2", "Item 3", "Item 4");
+
+    private WebDriver driver;
+    private SplashPage splashPage;
+    private InputPage inputPage;
+    private VotingPage votingPage;
+    private ResultsPage resultsPage;
+
+    @BeforeClass
+    public void setup() {
+        driver = DriverManager.getDriver();
+        splashPage = new SplashPage(driver);
+        inputPage = new InputPage(driver);
+        votingPage = new VotingPage(driver);
+        resultsPage = new ResultsPage(driver);
+        driver.get("https://rg.ruthprudence.com");
+    }
+
+    @Test(description = "Loop splash, input, matchup and results in one tab and fail on memory growth")
+    public void testRepeatedJourneyDoesNotLeak() throws IOException {
+        RunConfig config = RunConfig.current();
+        Duration duration = Duration.ofMinutes(config.getLong("soak.durationMin", 30));
+        int maxCycles = config.getInt("soak.maxCycles", 0);
+        int minCycles = config.getInt("soak.minCycles", 10);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (SoakMonitor monitor = new SoakMonitor(driver, "journey")) {
+            int cycle = 0;
+            while (System.nanoTime() < deadline && (maxCycles <= 0 || cycle < maxCycles)) {
+                cycle++;
+                // Rotate the preferences so every cycle renders different matchups
+                List<String> order = new ArrayList<>(ITEMS);
+                Collections.shuffle(order, new Random(cycle));
+                playJourney(order);
+                monitor.sample(cycle);
+            }
+
+            if (monitor.getAnalysedCycles() < minCycles) {
+                throw new SkipException("Only " + monitor.getAnalysedCycles() + " cycles after warm-up, "
+                        + minCycles + " needed to judge a trend; see " + monitor.getSeriesFile());
+            }
+            List<SoakMonitor.Trend> trends = monitor.analyze();
+            trends.forEach(trend -> System.out.println("Soak " + trend));
+            List<SoakMonitor.Trend> leaks = trends.stream().filter(SoakMonitor.Trend::isLeak).collect(Collectors.toList());
+            Assert.assertTrue(leaks.isEmpty(), "Memory keeps growing across cycles: " + leaks
+                    + "; series in " + monitor.getSeriesFile());
+        }
+    }
+
+    private void playJourney(List<String> order) {
+        splashPage.enterTopic("Soak");
+        splashPage.waitForSubmitButtonEnabled();
+        splashPage.clickSubmitTopic();
+        inputPage.waitForPageToLoad();
+        inputPage.enterItems(ITEMS);
+        inputPage.waitForRankButtonEnabled();
+        inputPage.clickRankButtonAndWaitForMatchup();
+        votingPage.waitForPageToLoad();
+        votingPage.playTournament(order);
+        resultsPage.waitForPageToLoad(ITEMS);
+        Assert.assertEquals(resultsPage.getRanking(ITEMS), RankingOracle.expectedRanking(ITEMS, order));
+        resultsPage.clickResetButtonAndWaitForSplash();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        DriverManager.quitDriver();
+    }
+}
@@ -1,13 +1,18 @@
 package com.rankinggame.testcases;
 
 import com.rankinggame.pages.SplashPage;
+import com.rankinggame.utils.BrowserLog;
 import com.rankinggame.utils.DriverManager;
+import com.rankinggame.utils.VisualCheckResult;
 import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
+
 public class SplashPageTest {
 
     private WebDriver driver;
@@ -148,6 +153,51 @@ public class SplashPageTest {
         try { Thread.sleep(500); } catch (InterruptedException e) { e.printStackTrace(); }
     }
 
+    @Test(description = "Verify splash page loads without uncaught JavaScript errors", priority = 6)
+    public void testSplashPageHasNoUncaughtErrors() {
+        driver.navigate().refresh();
+        splashPage.waitForLeftToRightSlideVisible();
+        BrowserLog log = DriverManager.getBrowserLog();
+        if (log == null) {
+            throw new SkipException("Browser logs are not collected for this session");
+        }
+        log.assertNoUncaughtErrors();
+    }
+
+    @Test(description = "Verify splash page matches its visual baseline", priority = 7)
+    public void testSplashPageVisuals() {
+        driver.navigate().refresh();
+        splashPage.waitForLeftToRightSlideVisible();
+        VisualCheckResult result = splashPage.checkSplashVisuals();
+        if (result.isBaselineMissing()) {
+            throw new SkipException(result.toString());
+        }
+        Assert.assertTrue(result.isPassed(), result.toString());
+    }
+
+    @Test(description = "Verify the slide-in containers appear once the page clock is fast-forwarded", priority = 8)
+    public void testSlideInsWithVirtualClock() {
+        boolean installedBeforeLoad = splashPage.installClock();
+        try {
+            if (!installedBeforeLoad) {
+                throw new SkipException("The page clock can only be in place before page scripts run on Chromium");
+            }
+            driver.navigate().refresh();
+            // Page time stands still until advanced, so nothing has slid in yet
+            Assert.assertFalse(splashPage.isLeftToRightSlideDisplayed(), "Left-to-right slide before advancing the clock");
+            Assert.assertFalse(splashPage.isBottomToTopSlideDisplayed(), "Bottom-to-top slide before advancing the clock");
+
+            int fired = splashPage.advanceClock(Duration.ofSeconds(2));
+
+            Assert.assertTrue(fired > 0, "Advancing the clock should fire the page's timers");
+            // Checked at once: only virtual time may have made them appear
+            Assert.assertTrue(splashPage.isLeftToRightSlideDisplayed(), "Left-to-right slide after advancing the clock");
+            Assert.assertTrue(splashPage.isBottomToTopSlideDisplayed(), "Bottom-to-top slide after advancing the clock");
+        } finally {
+            splashPage.uninstallClock();
+        }
+    }
+
     @AfterClass
     public void tearDown() {
         DriverManager.quitDriver();
@@ -0,0 +1,46 @@
+package com.rankinggame.testcases;
+
+import com.rankinggame.utils.RunConfig;
+import com.rankinggame.utils.TransportBenchmark;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compares per-command round-trip latency across the transport variants in
+ * transport.benchmark.variants. Runs from testng-benchmark.xml
+ * (mvn test -Pbenchmark); results go to transport-benchmark.csv.
+ */
+public class TransportBenchmarkTest {
+
+    private final String HOME_PAGE_URL = "https://rg.ruthprudence.com";
+
+    @Test(description = "Measure command round-trip latency for each transport variant")
+    public void testCommandRoundTripLatency() throws IOException {
+        RunConfig config = RunConfig.current();
+        Map<String, Map<String, String>> variants = TransportBenchmark.parseVariants(
+                config.getString("transport.benchmark.variants", "default"));
+        int warmup = config.getInt("transport.benchmark.warmup", 50);
+        int iterations = config.getInt("transport.benchmark.iterations", 500);
+
+        TransportBenchmark benchmark = new TransportBenchmark();
+        variants.forEach((name, overrides) -> benchmark.run(name, overrides, HOME_PAGE_URL, warmup, iterations));
+        benchmark.writeReport();
+
+        // One full result set per variant: every variant measured the same commands
+        Map<String, Set<String>> commandsByVariant = benchmark.getResults().stream()
+                .collect(Collectors.groupingBy(TransportBenchmark.Result::getVariant,
+                        Collectors.mapping(TransportBenchmark.Result::getCommand, Collectors.toSet())));
+        Assert.assertEquals(commandsByVariant.keySet(), variants.keySet(), "Variants with results");
+        Set<String> commands = commandsByVariant.values().iterator().next();
+        Assert.assertFalse(commands.isEmpty(), "Commands measured");
+        commandsByVariant.forEach((variant, measured) ->
+                Assert.assertEquals(measured, commands, "Commands measured for variant " + variant));
+        Assert.assertEquals(benchmark.getResults().size(), variants.size() * commands.size(),
+                "One result per variant and command");
+    }
+}
@@ -0,0 +1,126 @@
+package com.rankinggame.testcases;
+
+import com.rankinggame.utils.ConfigReader;
+import com.rankinggame.utils.VisualCheckResult;
+import com.rankinggame.utils.VisualComparator;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Rectangle;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Runs synthetic screenshots through the visual comparator against a
+ * baseline in a temporary visual.baselineDir; needs no browser
+ */
+public class VisualComparatorTest {
+
+    private static final String NAME = "synthetic";
+    private static final Dimension VIEWPORT = new Dimension(128, 64);
+    // One 32px tile (x 32-63, y 0-31); Selenium's Rectangle takes (x, y, height, width)
+    private static final Rectangle CHANGED_TILE = new Rectangle(32, 0, 32, 32);
+
+    private Path baselineDir;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        baselineDir = Files.createTempDirectory("visual-baselines");
+
+        // Without a baseline the capture is recorded; install the recording as the baseline
+        VisualCheckResult result = compare(png(false), List.of());
+        Assert.assertTrue(result.isBaselineMissing(), "Baseline missing on first compare");
+        Path recorded = result.getRecordedBaseline();
+        Path baseline = baselineDir.resolve(Paths.get("target", "visual-baselines").relativize(recorded));
+        Files.createDirectories(baseline.getParent());
+        Files.copy(recorded, baseline);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(baselineDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(description = "Verify an identical capture passes with no changed tiles")
+    public void testIdenticalCapturePasses() throws IOException {
+        VisualCheckResult result = compare(png(false), List.of());
+        Assert.assertTrue(result.isPassed(), result.toString());
+        Assert.assertEquals(result.getChangedTiles(), 0, "Changed tiles");
+        Assert.assertEquals(result.getDiffPixels(), 0, "Differing pixels");
+    }
+
+    @Test(description = "Verify a change inside one tile fails and is reported for that tile only")
+    public void testChangedTileFails() throws IOException {
+        VisualCheckResult result = compare(png(true), List.of());
+        Assert.assertFalse(result.isPassed(), result.toString());
+        Assert.assertEquals(result.getTotalTiles(), 8, "Tiles compared");
+        Assert.assertEquals(result.getChangedTiles(), 1, "Changed tiles");
+        Assert.assertEquals(result.getDiffPixels(), 100, "Differing pixels");
+        Assert.assertNotNull(result.getDiffImage(), "Diff image written");
+    }
+
+    @Test(description = "Verify a change under a mask is ignored")
+    public void testMaskedChangePasses() throws IOException {
+        VisualCheckResult result = compare(png(true), List.of(CHANGED_TILE));
+        Assert.assertTrue(result.isPassed(), result.toString());
+        Assert.assertEquals(result.getChangedTiles(), 0, "Changed tiles");
+        Assert.assertEquals(result.getDiffPixels(), 0, "Differing pixels");
+    }
+
+    /**
+     * Compares against the temporary baseline directory. Overrides hold for the
+     * calling thread only, so they are set around each call.
+     */
+    private VisualCheckResult compare(byte[] png, List<Rectangle> masks) {
+        Map<String, String> overrides = Map.of(
+                "visual.baselineDir", baselineDir.toString(),
+                "visual.updateBaselines", "false",
+                "visual.tileSize", "32",
+                "visual.pixelTolerance", "16",
+                "visual.maxDiffRatio", "0.001");
+        overrides.forEach(ConfigReader::setThreadOverride);
+        try {
+            return VisualComparator.compare(NAME, VIEWPORT, png, masks);
+        } finally {
+            overrides.keySet().forEach(key -> ConfigReader.setThreadOverride(key, null));
+        }
+    }
+
+    /**
+     * Draws a gradient with stripes, so every tile has structure for its hash,
+     * optionally with a 10x10 block changed inside CHANGED_TILE
+     */
+    private static byte[] png(boolean changed) throws IOException {
+        BufferedImage image = new BufferedImage(VIEWPORT.getWidth(), VIEWPORT.getHeight(), BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int stripe = (x / 4 + y / 4) % 2 == 0 ? 0 : 60;
+                image.setRGB(x, y, new Color(2 * x, 3 * y, 100 + stripe).getRGB());
+            }
+        }
+        if (changed) {
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(Color.MAGENTA);
+            graphics.fillRect(CHANGED_TILE.x + 10, CHANGED_TILE.y + 10, 10, 10);
+            graphics.dispose();
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        return png.toByteArray();
+    }
+}
@@ -0,0 +1,132 @@
+package com.rankinggame.testcases;
+
+import com.rankinggame.listeners.Emulate;
+import com.rankinggame.pages.InputPage;
+import com.rankinggame.pages.ResultsPage;
+import com.rankinggame.pages.SplashPage;
+import com.rankinggame.pages.VotingPage;
+import com.rankinggame.utils.DriverManager;
+import com.rankinggame.utils.Matchup;
+import com.rankinggame.utils.RankingOracle;
+import com.rankinggame.utils.VisualCheckResult;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class VotingPageTest {
+
+    private WebDriver driver;
+    private SplashPage splashPage;
+    private InputPage inputPage;
+    private VotingPage votingPage;
+    private ResultsPage resultsPage;
+
+    @BeforeMethod
+    public void setup() {
+        driver = DriverManager.getDriver();
+        splashPage = new SplashPage(driver);
+        inputPage = new InputPage(driver);
+        votingPage = new VotingPage(driver);
+        resultsPage = new ResultsPage(driver);
+        driver.get("https://rg.ruthprudence.com");
+        splashPage.enterTopic("Tournament");
+        splashPage.waitForSubmitButtonEnabled();
+        splashPage.clickSubmitTopic();
+        inputPage.waitForPageToLoad();
+    }
+
+    @DataProvider(name = "tournaments")
+    public Object[][] tournaments() {
+        List<Object[]> data = new ArrayList<>();
+        for (int size = 3; size <= 12; size++) {
+            List<String> items = items(size);
+            for (List<String> order : RankingOracle.preferenceOrders(items, 3, size)) {
+                data.add(new Object[]{items, order});
+            }
+        }
+        return data.toArray(new Object[0][]);
+    }
+
+    @Test(description = "Play a tournament through real clicks and verify the ranking")
+    public void testTournamentWithClicks() {
+        List<String> items = items(4);
+        List<String> order = List.of("Item 3", "Item 1", "Item 4", "Item 2");
+        startTournament(items);
+
+        List<Matchup> played = votingPage.playTournament(order);
+
+        Assert.assertEquals(RankingOracle.verifyPairings(items, played), List.of());
+        resultsPage.waitForPageToLoad(items);
+        Assert.assertEquals(resultsPage.getRanking(items), RankingOracle.expectedRanking(items, order));
+    }
+
+    @Test(dataProvider = "tournaments", description = "Play data-driven tournaments in the page and verify the ranking")
+    public void testTournamentBatched(List<String> items, List<String> order) {
+        startTournament(items);
+
+        List<Matchup> played = votingPage.playTournamentBatched(order);
+
+        Assert.assertEquals(RankingOracle.verifyPairings(items, played), List.of());
+        resultsPage.waitForPageToLoad(items);
+        Assert.assertEquals(resultsPage.getRanking(items), RankingOracle.expectedRanking(items, order),
+                "Preference order " + order);
+    }
+
+    @Emulate("mobile-3g")
+    @Test(description = "Play a tournament on a throttled mobile client and verify the ranking")
+    public void testTournamentOnSlowClient() {
+        List<String> items = items(4);
+        List<String> order = List.of("Item 2", "Item 4", "Item 1", "Item 3");
+        startTournament(items);
+
+        votingPage.playTournament(order);
+
+        resultsPage.waitForPageToLoad(items);
+        Assert.assertEquals(resultsPage.getRanking(items), RankingOracle.expectedRanking(items, order));
+    }
+
+    @Test(description = "Verify matchup and results pages match their visual baselines")
+    public void testTournamentVisuals() {
+        List<String> items = items(4);
+        startTournament(items);
+        VisualCheckResult matchup = votingPage.checkMatchupVisuals(items);
+
+        votingPage.playTournament(items);
+        resultsPage.waitForPageToLoad(items);
+        VisualCheckResult results = resultsPage.checkResultsVisuals();
+
+        for (VisualCheckResult result : List.of(matchup, results)) {
+            if (result.isBaselineMissing()) {
+                throw new SkipException(result.toString());
+            }
+            Assert.assertTrue(result.isPassed(), result.toString());
+        }
+    }
+
+    private void startTournament(List<String> items) {
+        inputPage.enterItems(items);
+        inputPage.waitForRankButtonEnabled();
+        inputPage.clickRankButtonAndWaitForMatchup();
+        votingPage.waitForPageToLoad();
+    }
+
+    private static List<String> items(int size) {
+        List<String> items = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            items.add("Item " + i);
+        }
+        return items;
+    }
+
+    @AfterClass
+    public void tearDown() {
+        DriverManager.quitDriver();
+    }
+}